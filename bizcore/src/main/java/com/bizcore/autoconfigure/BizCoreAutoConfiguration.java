@@ -1,11 +1,14 @@
 package com.bizcore.autoconfigure;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Auto-configuration for BizCore.
@@ -15,6 +18,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @ComponentScan(basePackages = "com.bizcore")
 @EntityScan(basePackages = "com.bizcore.entity")
 @EnableJpaRepositories(basePackages = "com.bizcore.repository")
+@EnableScheduling
 public class BizCoreAutoConfiguration {
 
     @Bean
@@ -22,4 +26,12 @@ public class BizCoreAutoConfiguration {
     public BizCoreProperties bizCoreProperties() {
         return new BizCoreProperties();
     }
+
+    /**
+     * Per-endpoint connection hold-time metrics (bizcore.db.connection.hold)
+     */
+    @Bean
+    public static ConnectionHoldTimePostProcessor connectionHoldTimePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionHoldTimePostProcessor(meterRegistry);
+    }
 }
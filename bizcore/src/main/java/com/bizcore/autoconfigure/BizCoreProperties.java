@@ -2,6 +2,10 @@ package com.bizcore.autoconfigure;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for BizCore.
  */
@@ -34,9 +38,103 @@ public class BizCoreProperties {
     private String jwtSecret = "bizcore-jwt-secret-key-2024-very-long-and-secure";
 
     /**
-     * JWT expiration in milliseconds (default 24 hours)
+     * Access token (JWT) expiration in milliseconds (default 15 minutes).
+     * Clients renew access tokens through /api/auth/refresh.
+     */
+    private long jwtExpiration = 900000;
+
+    /**
+     * Refresh token expiration in milliseconds (default 30 days)
+     */
+    private long refreshTokenExpiration = 2592000000L;
+
+    /**
+     * Token signing algorithm: HMAC (shared jwtSecret), ES256 or EDDSA (Ed25519).
+     * The asymmetric algorithms let downstream applications verify tokens locally via the JWKS endpoint.
+     */
+    private JwtAlgorithm jwtAlgorithm = JwtAlgorithm.HMAC;
+
+    /**
+     * PEM-encoded PKCS#8 private key for ES256/EDDSA signing
+     */
+    private String jwtPrivateKey;
+
+    /**
+     * PEM-encoded X.509 public key matching jwtPrivateKey
+     */
+    private String jwtPublicKey;
+
+    /**
+     * Key id written to the "kid" header of newly issued tokens
+     */
+    private String jwtKeyId = "primary";
+
+    /**
+     * Retired JWT keys that are still accepted for verification during a rotation window
+     */
+    private List<JwtKey> jwtPreviousKeys = new ArrayList<>();
+
+    /**
+     * How permissions are encoded in tokens: BITMAP (compact), LIST (full code list, readable by any
+     * consumer) or AUTO (default: BITMAP with HMAC, LIST with ES256/EDDSA, since applications that
+     * verify tokens through the JWKS endpoint have no permission catalog to decode a bitmap)
+     */
+    private PermissionClaimFormat jwtPermissionFormat = PermissionClaimFormat.AUTO;
+
+    /**
+     * How often in milliseconds company and user permission epochs are reloaded from the database
+     */
+    private long permissionEpochRefreshInterval = 30000;
+
+    /**
+     * Maximum number of tokens accepted by one /api/auth/introspect call
      */
-    private long jwtExpiration = 86400000;
+    private int introspectionMaxTokens = 100;
+
+    /**
+     * How often in milliseconds buffered last-login timestamps are written to the users table
+     */
+    private long lastLoginFlushInterval = 5000;
+
+    /**
+     * Bounded pool for password hashing
+     */
+    private PasswordHashing passwordHashing = new PasswordHashing();
+
+    /**
+     * Company registration provisioning
+     */
+    private Provisioning provisioning = new Provisioning();
+
+    /**
+     * In-memory company code registry
+     */
+    private TenantRegistry tenantRegistry = new TenantRegistry();
+
+    /**
+     * Rate limits for login attempts
+     */
+    private LoginThrottle loginThrottle = new LoginThrottle();
+
+    /**
+     * API keys for machine clients
+     */
+    private ApiKeys apiKeys = new ApiKeys();
+
+    /**
+     * Request log capture and write-behind
+     */
+    private RequestLogging requestLogging = new RequestLogging();
+
+    /**
+     * Cache of already-verified tokens
+     */
+    private TokenCache tokenCache = new TokenCache();
+
+    /**
+     * In-memory revocation list for access tokens
+     */
+    private Revocation revocation = new Revocation();
 
     // Getters and Setters
     public String getAppCode() { return appCode; }
@@ -56,4 +154,611 @@ public class BizCoreProperties {
 
     public long getJwtExpiration() { return jwtExpiration; }
     public void setJwtExpiration(long jwtExpiration) { this.jwtExpiration = jwtExpiration; }
+
+    public long getRefreshTokenExpiration() { return refreshTokenExpiration; }
+    public void setRefreshTokenExpiration(long refreshTokenExpiration) { this.refreshTokenExpiration = refreshTokenExpiration; }
+
+    public JwtAlgorithm getJwtAlgorithm() { return jwtAlgorithm; }
+    public void setJwtAlgorithm(JwtAlgorithm jwtAlgorithm) { this.jwtAlgorithm = jwtAlgorithm; }
+
+    public String getJwtPrivateKey() { return jwtPrivateKey; }
+    public void setJwtPrivateKey(String jwtPrivateKey) { this.jwtPrivateKey = jwtPrivateKey; }
+
+    public String getJwtPublicKey() { return jwtPublicKey; }
+    public void setJwtPublicKey(String jwtPublicKey) { this.jwtPublicKey = jwtPublicKey; }
+
+    public String getJwtKeyId() { return jwtKeyId; }
+    public void setJwtKeyId(String jwtKeyId) { this.jwtKeyId = jwtKeyId; }
+
+    public List<JwtKey> getJwtPreviousKeys() { return jwtPreviousKeys; }
+    public void setJwtPreviousKeys(List<JwtKey> jwtPreviousKeys) { this.jwtPreviousKeys = jwtPreviousKeys; }
+
+    public PermissionClaimFormat getJwtPermissionFormat() { return jwtPermissionFormat; }
+    public void setJwtPermissionFormat(PermissionClaimFormat jwtPermissionFormat) { this.jwtPermissionFormat = jwtPermissionFormat; }
+
+    public long getPermissionEpochRefreshInterval() { return permissionEpochRefreshInterval; }
+    public void setPermissionEpochRefreshInterval(long permissionEpochRefreshInterval) { this.permissionEpochRefreshInterval = permissionEpochRefreshInterval; }
+
+    public int getIntrospectionMaxTokens() { return introspectionMaxTokens; }
+    public void setIntrospectionMaxTokens(int introspectionMaxTokens) { this.introspectionMaxTokens = introspectionMaxTokens; }
+
+    public long getLastLoginFlushInterval() { return lastLoginFlushInterval; }
+    public void setLastLoginFlushInterval(long lastLoginFlushInterval) { this.lastLoginFlushInterval = lastLoginFlushInterval; }
+
+    public PasswordHashing getPasswordHashing() { return passwordHashing; }
+    public void setPasswordHashing(PasswordHashing passwordHashing) { this.passwordHashing = passwordHashing; }
+
+    public Provisioning getProvisioning() { return provisioning; }
+    public void setProvisioning(Provisioning provisioning) { this.provisioning = provisioning; }
+
+    public TenantRegistry getTenantRegistry() { return tenantRegistry; }
+    public void setTenantRegistry(TenantRegistry tenantRegistry) { this.tenantRegistry = tenantRegistry; }
+
+    public LoginThrottle getLoginThrottle() { return loginThrottle; }
+    public void setLoginThrottle(LoginThrottle loginThrottle) { this.loginThrottle = loginThrottle; }
+
+    public ApiKeys getApiKeys() { return apiKeys; }
+    public void setApiKeys(ApiKeys apiKeys) { this.apiKeys = apiKeys; }
+
+    public RequestLogging getRequestLogging() { return requestLogging; }
+    public void setRequestLogging(RequestLogging requestLogging) { this.requestLogging = requestLogging; }
+
+    public TokenCache getTokenCache() { return tokenCache; }
+    public void setTokenCache(TokenCache tokenCache) { this.tokenCache = tokenCache; }
+
+    public Revocation getRevocation() { return revocation; }
+    public void setRevocation(Revocation revocation) { this.revocation = revocation; }
+
+    public enum JwtAlgorithm {
+        HMAC,
+        ES256,
+        EDDSA
+    }
+
+    public enum PermissionClaimFormat {
+        AUTO,
+        LIST,
+        BITMAP
+    }
+
+    public enum PasswordAlgorithm {
+        BCRYPT,
+        ARGON2,
+        PBKDF2
+    }
+
+    public enum OverflowPolicy {
+        DROP,
+        SAMPLE,
+        BLOCK
+    }
+
+    /**
+     * A verification-only JWT key kept around while tokens signed with it expire.
+     */
+    public static class JwtKey {
+
+        /**
+         * Key id matching the "kid" header of tokens signed with this key
+         */
+        private String id;
+
+        /**
+         * Secret of an HMAC key
+         */
+        private String secret;
+
+        /**
+         * PEM-encoded X.509 public key of an ES256/EDDSA key (published in the JWKS)
+         */
+        private String publicKey;
+
+        /**
+         * Tokens signed with this key are rejected after this instant (null = no limit)
+         */
+        private Instant acceptUntil;
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getSecret() { return secret; }
+        public void setSecret(String secret) { this.secret = secret; }
+
+        public String getPublicKey() { return publicKey; }
+        public void setPublicKey(String publicKey) { this.publicKey = publicKey; }
+
+        public Instant getAcceptUntil() { return acceptUntil; }
+        public void setAcceptUntil(Instant acceptUntil) { this.acceptUntil = acceptUntil; }
+    }
+
+    /**
+     * Settings for API key authentication.
+     */
+    public static class ApiKeys {
+
+        /**
+         * Request header carrying the key
+         */
+        private String header = "X-API-Key";
+
+        /**
+         * Secret mixed into the stored key digests (defaults to jwt-secret); changing it invalidates all keys
+         */
+        private String pepper;
+
+        /**
+         * Time in milliseconds a resolved key is cached before it is looked up again
+         */
+        private long cacheTtl = 60000;
+
+        /**
+         * Maximum number of cached keys, including well-formed ones that turned out unknown or revoked
+         */
+        private int cacheMaxSize = 10000;
+
+        public String getHeader() { return header; }
+        public void setHeader(String header) { this.header = header; }
+
+        public String getPepper() { return pepper; }
+        public void setPepper(String pepper) { this.pepper = pepper; }
+
+        public long getCacheTtl() { return cacheTtl; }
+        public void setCacheTtl(long cacheTtl) { this.cacheTtl = cacheTtl; }
+
+        public int getCacheMaxSize() { return cacheMaxSize; }
+        public void setCacheMaxSize(int cacheMaxSize) { this.cacheMaxSize = cacheMaxSize; }
+    }
+
+    /**
+     * Settings for request logging.
+     */
+    public static class RequestLogging {
+
+        /**
+         * Maximum bytes of a request or response body captured and kept in the log; larger bodies are
+         * streamed through without being buffered and logged truncated
+         */
+        private int maxBodyLength = 5000;
+
+        /**
+         * JSON field names (case-insensitive) whose values are masked in logged bodies
+         */
+        private List<String> redactFields = new ArrayList<>(List.of(
+            "password", "passwordConfirm", "currentPassword", "newPassword", "oldPassword",
+            "token", "accessToken", "refreshToken", "apiKey", "secretKey",
+            "creditCard", "cvv", "ssn", "socialSecurityNumber",
+            "secret", "privateKey", "authorization", "tokens", "adminPassword"));
+
+        /**
+         * Request logs that can wait in memory for the background writer
+         */
+        private int bufferCapacity = 10000;
+
+        /**
+         * Maximum rows per JDBC batch
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum time in milliseconds a log waits before a partial batch is written
+         */
+        private long flushInterval = 1000;
+
+        /**
+         * What to do when the buffer is full: DROP, SAMPLE (keep sample-rate of successful requests
+         * once the buffer is 3/4 full) or BLOCK (wait up to max-block)
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * Fraction of successful requests kept by the SAMPLE policy under pressure
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * Maximum time in milliseconds the BLOCK policy holds a request thread
+         */
+        private long maxBlock = 50;
+
+        /**
+         * Path patterns never logged, not even on error
+         */
+        private List<String> skipPaths = new ArrayList<>(List.of(
+            "/app/assets/**", "/css/**", "/js/**", "/images/**", "/favicon.ico", "/actuator/health/**"));
+
+        /**
+         * File extensions (static resources) never logged
+         */
+        private List<String> skipExtensions = new ArrayList<>(List.of(
+            "css", "js", "png", "jpg", "jpeg", "gif", "svg", "woff", "woff2", "ttf", "eot"));
+
+        /**
+         * Fraction of successful, fast requests logged on routes without a policy
+         */
+        private double defaultSampleRate = 1.0;
+
+        /**
+         * Requests taking at least this many milliseconds are always logged
+         */
+        private long slowThreshold = 1000;
+
+        /**
+         * Per-route policies; the first matching route wins over any @RequestLogPolicy on the handler
+         */
+        private List<RoutePolicy> routes = new ArrayList<>();
+
+        public int getMaxBodyLength() { return maxBodyLength; }
+        public void setMaxBodyLength(int maxBodyLength) { this.maxBodyLength = maxBodyLength; }
+
+        public List<String> getRedactFields() { return redactFields; }
+        public void setRedactFields(List<String> redactFields) { this.redactFields = redactFields; }
+
+        public int getBufferCapacity() { return bufferCapacity; }
+        public void setBufferCapacity(int bufferCapacity) { this.bufferCapacity = bufferCapacity; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public long getFlushInterval() { return flushInterval; }
+        public void setFlushInterval(long flushInterval) { this.flushInterval = flushInterval; }
+
+        public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+
+        public double getSampleRate() { return sampleRate; }
+        public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+
+        public long getMaxBlock() { return maxBlock; }
+        public void setMaxBlock(long maxBlock) { this.maxBlock = maxBlock; }
+
+        public List<String> getSkipPaths() { return skipPaths; }
+        public void setSkipPaths(List<String> skipPaths) { this.skipPaths = skipPaths; }
+
+        public List<String> getSkipExtensions() { return skipExtensions; }
+        public void setSkipExtensions(List<String> skipExtensions) { this.skipExtensions = skipExtensions; }
+
+        public double getDefaultSampleRate() { return defaultSampleRate; }
+        public void setDefaultSampleRate(double defaultSampleRate) { this.defaultSampleRate = defaultSampleRate; }
+
+        public long getSlowThreshold() { return slowThreshold; }
+        public void setSlowThreshold(long slowThreshold) { this.slowThreshold = slowThreshold; }
+
+        public List<RoutePolicy> getRoutes() { return routes; }
+        public void setRoutes(List<RoutePolicy> routes) { this.routes = routes; }
+    }
+
+    /**
+     * Request-log policy for the requests matching one path pattern.
+     */
+    public static class RoutePolicy {
+
+        /**
+         * Path pattern, e.g. /api/users/**
+         */
+        private String pattern;
+
+        /**
+         * HTTP methods the route applies to; empty for all
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Fraction of successful, fast requests logged
+         */
+        private double sampleRate = 1.0;
+
+        /**
+         * Whether request and response bodies are captured
+         */
+        private boolean captureBodies = true;
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public double getSampleRate() { return sampleRate; }
+        public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+
+        public boolean isCaptureBodies() { return captureBodies; }
+        public void setCaptureBodies(boolean captureBodies) { this.captureBodies = captureBodies; }
+    }
+
+    /**
+     * Settings for the verified-token cache.
+     */
+    public static class TokenCache {
+
+        /**
+         * Enable/disable caching of verified tokens
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached tokens
+         */
+        private int maxSize = 10000;
+
+        /**
+         * Maximum time in milliseconds a token stays cached (never beyond its exp claim)
+         */
+        private long maxTtl = 300000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public long getMaxTtl() { return maxTtl; }
+        public void setMaxTtl(long maxTtl) { this.maxTtl = maxTtl; }
+    }
+
+    /**
+     * Settings for the access-token revocation list.
+     */
+    public static class Revocation {
+
+        /**
+         * How often in milliseconds the list is reloaded from the revoked_tokens table
+         */
+        private long refreshInterval = 30000;
+
+        /**
+         * Number of concurrently revoked tokens the Bloom filter is sized for (grows on reload if exceeded)
+         */
+        private int expectedRevocations = 10000;
+
+        /**
+         * Target false-positive rate of the Bloom filter; positives are confirmed against an exact set
+         */
+        private double falsePositiveRate = 0.01;
+
+        public long getRefreshInterval() { return refreshInterval; }
+        public void setRefreshInterval(long refreshInterval) { this.refreshInterval = refreshInterval; }
+
+        public int getExpectedRevocations() { return expectedRevocations; }
+        public void setExpectedRevocations(int expectedRevocations) { this.expectedRevocations = expectedRevocations; }
+
+        public double getFalsePositiveRate() { return falsePositiveRate; }
+        public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+    }
+
+    /**
+     * Settings for the password hashing pool.
+     */
+    public static class PasswordHashing {
+
+        /**
+         * Worker threads (0 = number of available processors)
+         */
+        private int threads = 0;
+
+        /**
+         * Hashing requests allowed to wait for a worker before new ones are rejected
+         */
+        private int queueCapacity = 32;
+
+        /**
+         * Maximum time in milliseconds a hash may wait for a worker before the caller is rejected
+         * (0 = the time to drain a full queue, queue-capacity / threads * target-millis). A hash that
+         * has started is always finished, so a request thread blocks for at most max-wait plus one
+         * hash (about target-millis).
+         */
+        private long maxWait = 0;
+
+        /**
+         * Retry-After value in seconds sent with 503 responses
+         */
+        private long retryAfter = 2;
+
+        /**
+         * Algorithm for new hashes: BCRYPT, ARGON2 (Argon2id, needs BouncyCastle) or PBKDF2.
+         * Existing hashes of another algorithm or a lower cost are upgraded on the next login.
+         */
+        private PasswordAlgorithm algorithm = PasswordAlgorithm.BCRYPT;
+
+        /**
+         * Target time in milliseconds for one hash; the cost is calibrated to it at startup (0 = no calibration)
+         */
+        private long targetMillis = 250;
+
+        /**
+         * Lowest BCrypt strength calibration may choose, and the fixed strength when calibration is off
+         */
+        private int bcryptMinStrength = 10;
+
+        /**
+         * Highest BCrypt strength calibration may choose
+         */
+        private int bcryptMaxStrength = 14;
+
+        /**
+         * Argon2 memory cost in KiB
+         */
+        private int argon2Memory = 19456;
+
+        /**
+         * Argon2 lanes; keep low since logins already run in parallel on the hashing pool
+         */
+        private int argon2Parallelism = 1;
+
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+        public long getMaxWait() { return maxWait; }
+        public void setMaxWait(long maxWait) { this.maxWait = maxWait; }
+
+        public long getRetryAfter() { return retryAfter; }
+        public void setRetryAfter(long retryAfter) { this.retryAfter = retryAfter; }
+
+        public PasswordAlgorithm getAlgorithm() { return algorithm; }
+        public void setAlgorithm(PasswordAlgorithm algorithm) { this.algorithm = algorithm; }
+
+        public long getTargetMillis() { return targetMillis; }
+        public void setTargetMillis(long targetMillis) { this.targetMillis = targetMillis; }
+
+        public int getBcryptMinStrength() { return bcryptMinStrength; }
+        public void setBcryptMinStrength(int bcryptMinStrength) { this.bcryptMinStrength = bcryptMinStrength; }
+
+        public int getBcryptMaxStrength() { return bcryptMaxStrength; }
+        public void setBcryptMaxStrength(int bcryptMaxStrength) { this.bcryptMaxStrength = bcryptMaxStrength; }
+
+        public int getArgon2Memory() { return argon2Memory; }
+        public void setArgon2Memory(int argon2Memory) { this.argon2Memory = argon2Memory; }
+
+        public int getArgon2Parallelism() { return argon2Parallelism; }
+        public void setArgon2Parallelism(int argon2Parallelism) { this.argon2Parallelism = argon2Parallelism; }
+    }
+
+    /**
+     * Settings for company registration provisioning.
+     */
+    public static class Provisioning {
+
+        /**
+         * Provision registered companies in the background instead of within the registration request
+         */
+        private boolean async = false;
+
+        /**
+         * How often in milliseconds the worker polls for pending jobs
+         */
+        private long pollInterval = 1000;
+
+        /**
+         * Maximum jobs one poll processes
+         */
+        private int batchSize = 10;
+
+        /**
+         * Time in milliseconds after which a running job is considered abandoned and retried
+         */
+        private long staleAfter = 300000;
+
+        public boolean isAsync() { return async; }
+        public void setAsync(boolean async) { this.async = async; }
+
+        public long getPollInterval() { return pollInterval; }
+        public void setPollInterval(long pollInterval) { this.pollInterval = pollInterval; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public long getStaleAfter() { return staleAfter; }
+        public void setStaleAfter(long staleAfter) { this.staleAfter = staleAfter; }
+    }
+
+    /**
+     * Settings for the company code registry.
+     */
+    public static class TenantRegistry {
+
+        /**
+         * How often in milliseconds the registry is reloaded from the companies table; also the
+         * longest a company created on another node stays unknown here
+         */
+        private long refreshInterval = 30000;
+
+        public long getRefreshInterval() { return refreshInterval; }
+        public void setRefreshInterval(long refreshInterval) { this.refreshInterval = refreshInterval; }
+    }
+
+    /**
+     * Settings for login rate limiting. Each attempt consumes one token per client IP,
+     * per company code and per username within the company.
+     */
+    public static class LoginThrottle {
+
+        /**
+         * Enable/disable login rate limiting
+         */
+        private boolean enabled = true;
+
+        /**
+         * Attempts per client IP address
+         */
+        private RateLimit ip = new RateLimit(20, 10);
+
+        /**
+         * Failed attempts per company code, across all of its users
+         */
+        private RateLimit company = new RateLimit(200, 100);
+
+        /**
+         * Failed attempts per username within a company
+         */
+        private RateLimit username = new RateLimit(5, 2);
+
+        /**
+         * How often in milliseconds idle buckets are evicted
+         */
+        private long evictionInterval = 60000;
+
+        /**
+         * Maximum buckets tracked per limit; new keys beyond it share one overflow bucket
+         */
+        private int maxBuckets = 100000;
+
+        /**
+         * Addresses or CIDR ranges of reverse proxies whose X-Forwarded-For header is trusted;
+         * empty to always use the socket peer address
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public RateLimit getIp() { return ip; }
+        public void setIp(RateLimit ip) { this.ip = ip; }
+
+        public RateLimit getCompany() { return company; }
+        public void setCompany(RateLimit company) { this.company = company; }
+
+        public RateLimit getUsername() { return username; }
+        public void setUsername(RateLimit username) { this.username = username; }
+
+        public long getEvictionInterval() { return evictionInterval; }
+        public void setEvictionInterval(long evictionInterval) { this.evictionInterval = evictionInterval; }
+
+        public int getMaxBuckets() { return maxBuckets; }
+        public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+
+        public List<String> getTrustedProxies() { return trustedProxies; }
+        public void setTrustedProxies(List<String> trustedProxies) { this.trustedProxies = trustedProxies; }
+    }
+
+    /**
+     * A token bucket: up to capacity attempts in a burst, refilled at refillPerMinute.
+     */
+    public static class RateLimit {
+
+        /**
+         * Burst size (0 = unlimited)
+         */
+        private int capacity;
+
+        /**
+         * Tokens added per minute
+         */
+        private int refillPerMinute;
+
+        public RateLimit() {
+        }
+
+        public RateLimit(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getRefillPerMinute() { return refillPerMinute; }
+        public void setRefillPerMinute(int refillPerMinute) { this.refillPerMinute = refillPerMinute; }
+    }
 }
@@ -0,0 +1,129 @@
+package com.bizcore.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * DataSource wrapper that records how long each borrowed connection is held before it is
+ * returned to the pool, as the bizcore.db.connection.hold timer tagged with the endpoint
+ * (HTTP method + mapped URL pattern) that borrowed it. Connections borrowed before the
+ * handler is resolved (servlet filters) are tagged "unmapped", those borrowed outside a
+ * request (scheduled jobs) "background".
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource, Supplier<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        String endpoint = currentEndpoint();
+        long borrowedAt = System.nanoTime();
+        InvocationHandler handler = new HoldTimeHandler(connection, endpoint, borrowedAt);
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private void record(String endpoint, long borrowedAt) {
+        MeterRegistry registry = meterRegistry.get();
+        if (registry == null) {
+            return;
+        }
+        Timer.builder("bizcore.db.connection.hold")
+            .tag("endpoint", endpoint)
+            .description("Time a pooled JDBC connection was held before being returned")
+            .register(registry)
+            .record(System.nanoTime() - borrowedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return "background";
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? request.getMethod() + " " + pattern : "unmapped";
+    }
+
+    private class HoldTimeHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final String endpoint;
+        private final long borrowedAt;
+        private boolean closed;
+
+        HoldTimeHandler(Connection target, String endpoint, long borrowedAt) {
+            this.target = target;
+            this.endpoint = endpoint;
+            this.borrowedAt = borrowedAt;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        record(endpoint, borrowedAt);
+                    }
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                }
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Hold-time tracked connection [" + target + "]";
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
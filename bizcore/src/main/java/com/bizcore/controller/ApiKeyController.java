@@ -0,0 +1,54 @@
+package com.bizcore.controller;
+
+import com.bizcore.dto.ApiKeyDTO;
+import com.bizcore.dto.CreateApiKeyRequest;
+import com.bizcore.security.RequiresPermission;
+import com.bizcore.security.UserPrincipal;
+import com.bizcore.service.ApiKeyService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Manages the API keys of the caller's own company; the company is always taken from the
+ * authenticated principal, never from the request.
+ */
+@RestController
+@RequestMapping("/api/api-keys")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ApiKeyController {
+
+    @Autowired
+    private ApiKeyService apiKeyService;
+
+    @GetMapping
+    @RequiresPermission("API_KEY_MANAGE")
+    public ResponseEntity<List<ApiKeyDTO>> getApiKeys(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(apiKeyService.getApiKeysByCompany(principal.getCompanyId()));
+    }
+
+    @PostMapping
+    @RequiresPermission("API_KEY_MANAGE")
+    public ResponseEntity<ApiKeyDTO> createApiKey(@AuthenticationPrincipal UserPrincipal principal,
+                                                  @Valid @RequestBody CreateApiKeyRequest request) {
+        try {
+            return ResponseEntity.ok(apiKeyService.createApiKey(principal, request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @RequiresPermission("API_KEY_MANAGE")
+    public ResponseEntity<Void> revokeApiKey(@AuthenticationPrincipal UserPrincipal principal,
+                                             @PathVariable Long id) {
+        if (apiKeyService.revokeApiKey(principal, id)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
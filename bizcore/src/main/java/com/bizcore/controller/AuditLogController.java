@@ -1,6 +1,7 @@
 package com.bizcore.controller;
 
 import com.bizcore.dto.AuditLogDTO;
+import com.bizcore.security.RequiresPermission;
 import com.bizcore.service.AuditService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -8,7 +9,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -20,7 +20,7 @@ public class AuditLogController {
     private AuditService auditService;
 
     @GetMapping("/company/{companyId}")
-    @PreAuthorize("hasAuthority('AUDIT_VIEW')")
+    @RequiresPermission("AUDIT_VIEW")
     public ResponseEntity<Page<AuditLogDTO>> getAuditLogsByCompany(
             @PathVariable Long companyId,
             @RequestParam(defaultValue = "0") int page,
@@ -34,7 +34,7 @@ public class AuditLogController {
     }
 
     @GetMapping("/user/{userId}")
-    @PreAuthorize("hasAuthority('AUDIT_VIEW')")
+    @RequiresPermission("AUDIT_VIEW")
     public ResponseEntity<Page<AuditLogDTO>> getAuditLogsByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
@@ -48,7 +48,7 @@ public class AuditLogController {
     }
 
     @GetMapping("/application/{appCode}")
-    @PreAuthorize("hasAuthority('AUDIT_VIEW')")
+    @RequiresPermission("AUDIT_VIEW")
     public ResponseEntity<Page<AuditLogDTO>> getAuditLogsByApplication(
             @PathVariable String appCode,
             @RequestParam(defaultValue = "0") int page,
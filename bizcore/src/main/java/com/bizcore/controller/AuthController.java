@@ -1,14 +1,28 @@
 package com.bizcore.controller;
 
+import com.bizcore.autoconfigure.BizCoreProperties;
 import com.bizcore.dto.AuthResponse;
+import com.bizcore.dto.IntrospectionRequest;
+import com.bizcore.dto.IntrospectionResponse;
 import com.bizcore.dto.LoginRequest;
+import com.bizcore.dto.ProvisioningStatusDTO;
+import com.bizcore.dto.RefreshTokenRequest;
 import com.bizcore.dto.RegisterCompanyRequest;
+import com.bizcore.security.JwtTokenProvider;
+import com.bizcore.security.LoginThrottle;
+import com.bizcore.security.RequiresPermission;
+import com.bizcore.security.UserPrincipal;
 import com.bizcore.service.AuthService;
+import com.bizcore.service.TenantProvisioningService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*", allowedHeaders = "*")
@@ -17,10 +31,23 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private TenantProvisioningService tenantProvisioningService;
+
+    @Autowired
+    private BizCoreProperties properties;
+
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        loginThrottle.acquire(loginThrottle.resolveClientIp(httpRequest),
+            request.getCompanyCode(), request.getUsername());
+
         AuthResponse response = authService.login(request);
         if (response.isSuccess()) {
+            loginThrottle.recordSuccess(request.getCompanyCode(), request.getUsername());
             return ResponseEntity.ok(response);
         }
         return ResponseEntity.badRequest().body(response);
@@ -29,17 +56,60 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> registerCompany(@Valid @RequestBody RegisterCompanyRequest request) {
         AuthResponse response = authService.registerCompany(request);
+        if (response.isSuccess() && response.getProvisioningId() != null) {
+            return ResponseEntity.accepted().body(response);
+        }
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
         }
         return ResponseEntity.badRequest().body(response);
     }
 
+    @GetMapping("/register/{provisioningId}")
+    public ResponseEntity<ProvisioningStatusDTO> getProvisioningStatus(@PathVariable String provisioningId) {
+        return tenantProvisioningService.getStatus(provisioningId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request.getRefreshToken());
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.status(401).body(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(HttpServletRequest httpRequest,
+                                               @RequestBody(required = false) RefreshTokenRequest request) {
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+        return ResponseEntity.ok(authService.logout(JwtTokenProvider.getBearerToken(httpRequest), refreshToken));
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<Boolean> validateToken(@RequestParam String token) {
         return ResponseEntity.ok(authService.validateToken(token));
     }
 
+    /**
+     * Batch variant of /validate for gateways and downstream applications: verifies up to
+     * bizcore.introspection-max-tokens tokens per call and returns their decoded principals.
+     * Callers must authenticate (typically with an API key) and hold TOKEN_INTROSPECT; only
+     * tokens of their own company are reported active.
+     */
+    @PostMapping("/introspect")
+    @RequiresPermission("TOKEN_INTROSPECT")
+    public ResponseEntity<IntrospectionResponse> introspect(@AuthenticationPrincipal UserPrincipal principal,
+                                                            @RequestBody IntrospectionRequest request) {
+        List<String> tokens = request.getTokens() != null ? request.getTokens() : List.of();
+        if (tokens.size() > properties.getIntrospectionMaxTokens()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new IntrospectionResponse(authService.introspect(tokens, principal.getCompanyId())));
+    }
+
     @GetMapping("/test")
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("Auth endpoint is working!");
@@ -1,11 +1,11 @@
 package com.bizcore.controller;
 
 import com.bizcore.dto.CompanyDTO;
+import com.bizcore.security.RequiresPermission;
 import com.bizcore.service.CompanyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,13 +18,13 @@ public class CompanyController {
     private CompanyService companyService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('COMPANY_VIEW')")
+    @RequiresPermission("COMPANY_VIEW")
     public ResponseEntity<List<CompanyDTO>> getAllCompanies() {
         return ResponseEntity.ok(companyService.getAllCompanies());
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('COMPANY_VIEW')")
+    @RequiresPermission("COMPANY_VIEW")
     public ResponseEntity<CompanyDTO> getCompanyById(@PathVariable Long id) {
         CompanyDTO company = companyService.getCompanyById(id);
         if (company != null) {
@@ -34,7 +34,7 @@ public class CompanyController {
     }
 
     @GetMapping("/code/{code}")
-    @PreAuthorize("hasAuthority('COMPANY_VIEW')")
+    @RequiresPermission("COMPANY_VIEW")
     public ResponseEntity<CompanyDTO> getCompanyByCode(@PathVariable String code) {
         CompanyDTO company = companyService.getCompanyByCode(code);
         if (company != null) {
@@ -44,7 +44,7 @@ public class CompanyController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('COMPANY_EDIT')")
+    @RequiresPermission("COMPANY_EDIT")
     public ResponseEntity<CompanyDTO> createCompany(@Valid @RequestBody CompanyDTO dto) {
         try {
             CompanyDTO created = companyService.createCompany(dto);
@@ -55,7 +55,7 @@ public class CompanyController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('COMPANY_EDIT')")
+    @RequiresPermission("COMPANY_EDIT")
     public ResponseEntity<CompanyDTO> updateCompany(@PathVariable Long id, @Valid @RequestBody CompanyDTO dto) {
         CompanyDTO updated = companyService.updateCompany(id, dto);
         if (updated != null) {
@@ -65,7 +65,7 @@ public class CompanyController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('COMPANY_EDIT')")
+    @RequiresPermission("COMPANY_EDIT")
     public ResponseEntity<Void> deleteCompany(@PathVariable Long id) {
         if (companyService.deleteCompany(id)) {
             return ResponseEntity.ok().build();
@@ -1,5 +1,8 @@
 package com.bizcore.controller;
 
+import com.bizcore.security.LoginThrottledException;
+import com.bizcore.security.PasswordHashingRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +14,28 @@ import java.util.Map;
 @RestControllerAdvice(basePackages = "com.bizcore.controller")
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleHashingRejected(PasswordHashingRejectedException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "ServiceUnavailable");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottled(LoginThrottledException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "TooManyRequests");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleAllExceptions(Exception ex) {
         ex.printStackTrace(); // This will print to console
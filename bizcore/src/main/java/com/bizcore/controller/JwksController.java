@@ -0,0 +1,46 @@
+package com.bizcore.controller;
+
+import com.bizcore.security.JwtKeyring;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+/**
+ * Public JSON Web Key Set for downstream applications that verify bizcore tokens locally.
+ * The document is prebuilt at startup and served with a strong ETag so clients can cache it
+ * and revalidate with If-None-Match instead of calling /api/auth/validate per request.
+ * If-None-Match is evaluated by Spring per RFC 9110, so ETag lists and weak validators match too.
+ */
+@RestController
+@RequestMapping("/api/public")
+public class JwksController {
+
+    private static final CacheControl JWKS_CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    @Autowired
+    private JwtKeyring keyring;
+
+    @GetMapping(value = "/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJwks(WebRequest request) {
+        String etag = keyring.getJwksEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(JWKS_CACHE_CONTROL)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(JWKS_CACHE_CONTROL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(keyring.getJwksJson());
+    }
+}
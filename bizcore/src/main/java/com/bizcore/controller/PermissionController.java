@@ -3,6 +3,7 @@ package com.bizcore.controller;
 import com.bizcore.dto.CreatePermissionRequest;
 import com.bizcore.dto.PermissionDTO;
 import com.bizcore.dto.UpdatePermissionRequest;
+import com.bizcore.security.RequiresPermission;
 import com.bizcore.service.PermissionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +12,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,7 +25,7 @@ public class PermissionController {
     private PermissionService permissionService;
 
     @GetMapping
-    @PreAuthorize("hasAnyAuthority('ROLE_MANAGE', 'ROLE_VIEW')")
+    @RequiresPermission({"ROLE_MANAGE", "ROLE_VIEW"})
     public ResponseEntity<Page<PermissionDTO>> getAllPermissions(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "100") int size,
@@ -38,19 +38,19 @@ public class PermissionController {
     }
 
     @GetMapping("/all")
-    @PreAuthorize("hasAnyAuthority('ROLE_MANAGE', 'ROLE_VIEW')")
+    @RequiresPermission({"ROLE_MANAGE", "ROLE_VIEW"})
     public ResponseEntity<List<PermissionDTO>> getAllPermissionsList() {
         return ResponseEntity.ok(permissionService.getAllPermissionsList());
     }
 
     @GetMapping("/module/{moduleName}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<List<PermissionDTO>> getPermissionsByModule(@PathVariable String moduleName) {
         return ResponseEntity.ok(permissionService.getPermissionsByModule(moduleName));
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<PermissionDTO> getPermissionById(@PathVariable Long id) {
         return permissionService.getPermissionById(id)
                 .map(ResponseEntity::ok)
@@ -58,7 +58,7 @@ public class PermissionController {
     }
 
     @GetMapping("/code/{code}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<PermissionDTO> getPermissionByCode(@PathVariable String code) {
         return permissionService.getPermissionByCode(code)
                 .map(ResponseEntity::ok)
@@ -66,7 +66,7 @@ public class PermissionController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<PermissionDTO> createPermission(@Valid @RequestBody CreatePermissionRequest request) {
         try {
             PermissionDTO permission = permissionService.createPermission(request);
@@ -77,7 +77,7 @@ public class PermissionController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<PermissionDTO> updatePermission(
             @PathVariable Long id,
             @Valid @RequestBody UpdatePermissionRequest request
@@ -91,7 +91,7 @@ public class PermissionController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<Void> deletePermission(@PathVariable Long id) {
         try {
             permissionService.deletePermission(id);
@@ -3,6 +3,7 @@ package com.bizcore.controller;
 import com.bizcore.dto.RequestLogDTO;
 import com.bizcore.entity.RequestLog;
 import com.bizcore.repository.RequestLogRepository;
+import com.bizcore.security.RequiresPermission;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -10,7 +11,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -19,7 +19,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/request-logs")
-@PreAuthorize("hasAuthority('AUDIT_VIEW')")
+@RequiresPermission("AUDIT_VIEW")
 public class RequestLogController {
 
     @Autowired
@@ -3,6 +3,8 @@ package com.bizcore.controller;
 import com.bizcore.dto.CreateRoleRequest;
 import com.bizcore.dto.RoleDTO;
 import com.bizcore.dto.UpdateRoleRequest;
+import com.bizcore.filter.RequestLogPolicy;
+import com.bizcore.security.RequiresPermission;
 import com.bizcore.service.RoleService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +13,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,7 +26,8 @@ public class RoleController {
     private RoleService roleService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('ROLE_VIEW')")
+    @RequiresPermission("ROLE_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<Page<RoleDTO>> getAllRoles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -38,25 +40,28 @@ public class RoleController {
     }
 
     @GetMapping("/company/{companyId}")
-    @PreAuthorize("hasAuthority('ROLE_VIEW')")
+    @RequiresPermission("ROLE_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<List<RoleDTO>> getRolesByCompany(@PathVariable Long companyId) {
         return ResponseEntity.ok(roleService.getRolesByCompany(companyId));
     }
 
     @GetMapping("/company/{companyId}/active")
-    @PreAuthorize("hasAuthority('ROLE_VIEW')")
+    @RequiresPermission("ROLE_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<List<RoleDTO>> getActiveRolesByCompany(@PathVariable Long companyId) {
         return ResponseEntity.ok(roleService.getActiveRolesByCompany(companyId));
     }
 
     @GetMapping("/system")
-    @PreAuthorize("hasAuthority('ROLE_VIEW')")
+    @RequiresPermission("ROLE_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<List<RoleDTO>> getSystemRoles() {
         return ResponseEntity.ok(roleService.getSystemRoles());
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_VIEW')")
+    @RequiresPermission("ROLE_VIEW")
     public ResponseEntity<RoleDTO> getRoleById(@PathVariable Long id) {
         return roleService.getRoleById(id)
                 .map(ResponseEntity::ok)
@@ -64,7 +69,7 @@ public class RoleController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<RoleDTO> createRole(@Valid @RequestBody CreateRoleRequest request) {
         try {
             RoleDTO role = roleService.createRole(request);
@@ -75,7 +80,7 @@ public class RoleController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<RoleDTO> updateRole(
             @PathVariable Long id,
             @Valid @RequestBody UpdateRoleRequest request
@@ -89,7 +94,7 @@ public class RoleController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<Void> deleteRole(@PathVariable Long id) {
         try {
             roleService.deleteRole(id);
@@ -1,10 +1,11 @@
 package com.bizcore.controller;
 
 import com.bizcore.dto.TranslationDTO;
+import com.bizcore.filter.RequestLogPolicy;
+import com.bizcore.security.RequiresPermission;
 import com.bizcore.service.TranslationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,6 +24,7 @@ public class TranslationController {
      * Public endpoint - no authentication required
      */
     @GetMapping("/{language}")
+    @RequestLogPolicy(sampleRate = 0.01, captureBodies = false)
     public ResponseEntity<Map<String, String>> getTranslations(@PathVariable String language) {
         Map<String, String> translations = translationService.getTranslationsForLanguage(language);
         return ResponseEntity.ok(translations);
@@ -33,6 +35,7 @@ public class TranslationController {
      * Public endpoint - no authentication required
      */
     @GetMapping("/{language}/{module}")
+    @RequestLogPolicy(sampleRate = 0.01, captureBodies = false)
     public ResponseEntity<Map<String, String>> getTranslationsByModule(
             @PathVariable String language,
             @PathVariable String module
@@ -46,7 +49,8 @@ public class TranslationController {
      * Requires ADMIN role
      */
     @GetMapping("/all")
-    @PreAuthorize("hasAnyAuthority('ROLE_MANAGE', 'USER_VIEW')")
+    @RequiresPermission({"ROLE_MANAGE", "USER_VIEW"})
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<List<TranslationDTO>> getAllTranslations() {
         List<TranslationDTO> translations = translationService.getAllTranslations();
         return ResponseEntity.ok(translations);
@@ -57,6 +61,7 @@ public class TranslationController {
      * Public endpoint
      */
     @GetMapping("/languages")
+    @RequestLogPolicy(sampleRate = 0.01, captureBodies = false)
     public ResponseEntity<List<String>> getAvailableLanguages() {
         List<String> languages = translationService.getAvailableLanguages();
         return ResponseEntity.ok(languages);
@@ -67,7 +72,7 @@ public class TranslationController {
      * Requires ADMIN role
      */
     @PostMapping
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<TranslationDTO> saveTranslation(@RequestBody TranslationDTO dto) {
         TranslationDTO saved = translationService.saveTranslation(dto);
         return ResponseEntity.ok(saved);
@@ -78,7 +83,7 @@ public class TranslationController {
      * Requires ADMIN role
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_MANAGE')")
+    @RequiresPermission("ROLE_MANAGE")
     public ResponseEntity<Void> deleteTranslation(@PathVariable Long id) {
         translationService.deleteTranslation(id);
         return ResponseEntity.ok().build();
@@ -3,6 +3,9 @@ package com.bizcore.controller;
 import com.bizcore.dto.CreateUserRequest;
 import com.bizcore.dto.UpdateUserRequest;
 import com.bizcore.dto.UserDTO;
+import com.bizcore.filter.RequestLogPolicy;
+import com.bizcore.security.PasswordHashingRejectedException;
+import com.bizcore.security.RequiresPermission;
 import com.bizcore.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +14,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,7 +27,8 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('USER_VIEW')")
+    @RequiresPermission("USER_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<Page<UserDTO>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -38,7 +41,8 @@ public class UserController {
     }
 
     @GetMapping("/company/{companyId}")
-    @PreAuthorize("hasAuthority('USER_VIEW')")
+    @RequiresPermission("USER_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<Page<UserDTO>> getUsersByCompany(
             @PathVariable Long companyId,
             @RequestParam(defaultValue = "0") int page,
@@ -52,13 +56,14 @@ public class UserController {
     }
 
     @GetMapping("/company/{companyId}/active")
-    @PreAuthorize("hasAuthority('USER_VIEW')")
+    @RequiresPermission("USER_VIEW")
+    @RequestLogPolicy(sampleRate = 0.1, captureBodies = false)
     public ResponseEntity<List<UserDTO>> getActiveUsersByCompany(@PathVariable Long companyId) {
         return ResponseEntity.ok(userService.getActiveUsersByCompany(companyId));
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('USER_VIEW')")
+    @RequiresPermission("USER_VIEW")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
                 .map(ResponseEntity::ok)
@@ -66,7 +71,7 @@ public class UserController {
     }
 
     @GetMapping("/company/{companyId}/username/{username}")
-    @PreAuthorize("hasAuthority('USER_VIEW')")
+    @RequiresPermission("USER_VIEW")
     public ResponseEntity<UserDTO> getUserByUsername(
             @PathVariable Long companyId,
             @PathVariable String username
@@ -77,18 +82,20 @@ public class UserController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('USER_CREATE')")
+    @RequiresPermission("USER_CREATE")
     public ResponseEntity<UserDTO> createUser(@Valid @RequestBody CreateUserRequest request) {
         try {
             UserDTO user = userService.createUser(request);
             return ResponseEntity.ok(user);
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('USER_EDIT')")
+    @RequiresPermission("USER_EDIT")
     public ResponseEntity<UserDTO> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UpdateUserRequest request
@@ -102,7 +109,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('USER_DELETE')")
+    @RequiresPermission("USER_DELETE")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         try {
             userService.deleteUser(id);
@@ -113,7 +120,7 @@ public class UserController {
     }
 
     @PutMapping("/{id}/deactivate")
-    @PreAuthorize("hasAuthority('USER_EDIT')")
+    @RequiresPermission("USER_EDIT")
     public ResponseEntity<Void> deactivateUser(@PathVariable Long id) {
         try {
             userService.deactivateUser(id);
@@ -124,7 +131,7 @@ public class UserController {
     }
 
     @PutMapping("/{id}/activate")
-    @PreAuthorize("hasAuthority('USER_EDIT')")
+    @RequiresPermission("USER_EDIT")
     public ResponseEntity<Void> activateUser(@PathVariable Long id) {
         try {
             userService.activateUser(id);
@@ -7,9 +7,12 @@ public class AuthResponse {
     private boolean success;
     private String message;
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private UserDTO user;
     private CompanyDTO company;
     private List<ApplicationDTO> applications;
+    private String provisioningId;
 
     public static AuthResponse success(String token, UserDTO user, CompanyDTO company,
                                        List<ApplicationDTO> applications) {
@@ -23,6 +26,17 @@ public class AuthResponse {
         return response;
     }
 
+    /**
+     * Registration accepted for asynchronous provisioning; poll /api/auth/register/{provisioningId}.
+     */
+    public static AuthResponse provisioning(String provisioningId) {
+        AuthResponse response = new AuthResponse();
+        response.setSuccess(true);
+        response.setMessage("Company registration accepted, provisioning in progress");
+        response.setProvisioningId(provisioningId);
+        return response;
+    }
+
     public static AuthResponse error(String message) {
         AuthResponse response = new AuthResponse();
         response.setSuccess(false);
@@ -40,6 +54,12 @@ public class AuthResponse {
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
 
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+
+    public Long getExpiresIn() { return expiresIn; }
+    public void setExpiresIn(Long expiresIn) { this.expiresIn = expiresIn; }
+
     public UserDTO getUser() { return user; }
     public void setUser(UserDTO user) { this.user = user; }
 
@@ -48,4 +68,7 @@ public class AuthResponse {
 
     public List<ApplicationDTO> getApplications() { return applications; }
     public void setApplications(List<ApplicationDTO> applications) { this.applications = applications; }
+
+    public String getProvisioningId() { return provisioningId; }
+    public void setProvisioningId(String provisioningId) { this.provisioningId = provisioningId; }
 }
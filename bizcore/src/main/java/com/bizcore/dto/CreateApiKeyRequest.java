@@ -0,0 +1,24 @@
+package com.bizcore.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class CreateApiKeyRequest {
+
+    @NotBlank(message = "Key name is required")
+    private String name;
+
+    private List<Long> roleIds;
+    private LocalDateTime expiresAt;
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public List<Long> getRoleIds() { return roleIds; }
+    public void setRoleIds(List<Long> roleIds) { this.roleIds = roleIds; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,13 @@
+package com.bizcore.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IntrospectionRequest {
+
+    private List<String> tokens = new ArrayList<>();
+
+    // Getters and Setters
+    public List<String> getTokens() { return tokens; }
+    public void setTokens(List<String> tokens) { this.tokens = tokens; }
+}
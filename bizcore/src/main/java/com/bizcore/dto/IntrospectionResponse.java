@@ -0,0 +1,22 @@
+package com.bizcore.dto;
+
+import java.util.List;
+
+/**
+ * Results in the same order as the tokens of the {@link IntrospectionRequest}.
+ */
+public class IntrospectionResponse {
+
+    private List<TokenIntrospectionDTO> results;
+
+    public IntrospectionResponse() {
+    }
+
+    public IntrospectionResponse(List<TokenIntrospectionDTO> results) {
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public List<TokenIntrospectionDTO> getResults() { return results; }
+    public void setResults(List<TokenIntrospectionDTO> results) { this.results = results; }
+}
@@ -0,0 +1,51 @@
+package com.bizcore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Introspection result for one token. Inactive tokens carry only active=false.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionDTO {
+
+    private boolean active;
+    private Long userId;
+    private Long companyId;
+    private String companyCode;
+    private String username;
+    private List<String> roles;
+    private List<String> permissions;
+    private Instant expiresAt;
+
+    public static TokenIntrospectionDTO inactive() {
+        return new TokenIntrospectionDTO();
+    }
+
+    // Getters and Setters
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getCompanyId() { return companyId; }
+    public void setCompanyId(Long companyId) { this.companyId = companyId; }
+
+    public String getCompanyCode() { return companyCode; }
+    public void setCompanyCode(String companyCode) { this.companyCode = companyCode; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public List<String> getRoles() { return roles; }
+    public void setRoles(List<String> roles) { this.roles = roles; }
+
+    public List<String> getPermissions() { return permissions; }
+    public void setPermissions(List<String> permissions) { this.permissions = permissions; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -11,7 +11,8 @@ import java.util.Set;
 public class Application {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "applications_id_seq")
+    @SequenceGenerator(name = "applications_id_seq", sequenceName = "applications_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
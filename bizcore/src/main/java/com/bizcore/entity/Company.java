@@ -2,6 +2,7 @@ package com.bizcore.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +12,8 @@ import java.util.List;
 public class Company {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "companies_id_seq")
+    @SequenceGenerator(name = "companies_id_seq", sequenceName = "companies_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -52,6 +54,14 @@ public class Company {
     @Column(name = "subscription_expires_at")
     private LocalDateTime subscriptionExpiresAt;
 
+    /**
+     * Incremented on changes that end access company-wide (deactivation, user deletion);
+     * managed by the database only (see CompanyRepository.incrementPermissionEpoch)
+     */
+    @Column(name = "permission_epoch", insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long permissionEpoch;
+
     @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnoreProperties("company")
     private List<User> users = new ArrayList<>();
@@ -126,6 +136,9 @@ public class Company {
     public LocalDateTime getSubscriptionExpiresAt() { return subscriptionExpiresAt; }
     public void setSubscriptionExpiresAt(LocalDateTime subscriptionExpiresAt) { this.subscriptionExpiresAt = subscriptionExpiresAt; }
 
+    public long getPermissionEpoch() { return permissionEpoch; }
+    public void setPermissionEpoch(long permissionEpoch) { this.permissionEpoch = permissionEpoch; }
+
     public List<User> getUsers() { return users; }
     public void setUsers(List<User> users) { this.users = users; }
 
@@ -10,6 +10,10 @@ import java.util.Set;
 @Table(name = "permissions")
 public class Permission {
 
+    /**
+     * Stays on IDENTITY: ids are bit positions in the permission bitmap claim (see PermissionCatalog),
+     * so they must stay dense; permissions are never inserted in bulk.
+     */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
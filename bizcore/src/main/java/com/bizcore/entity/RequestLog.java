@@ -1,6 +1,7 @@
 package com.bizcore.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
@@ -15,7 +16,9 @@ import java.time.LocalDateTime;
 public class RequestLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_logs_id_seq")
+    @SequenceGenerator(name = "request_logs_id_seq", sequenceName = "request_logs_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('request_logs_id_seq')") // RequestLogWriter inserts without an id
     private Long id;
 
     @Column(name = "company_id")
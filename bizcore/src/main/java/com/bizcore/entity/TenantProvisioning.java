@@ -0,0 +1,114 @@
+package com.bizcore.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A company registration handed to the background provisioning worker.
+ * The company row already exists (inactive) so its code is reserved; the worker clones
+ * the system roles, creates the admin and activates the company.
+ * The admin password hash is only kept until provisioning finishes. If provisioning fails the
+ * inactive company is deleted again, which releases its code and clears company_id.
+ */
+@Entity
+@Table(name = "tenant_provisioning", indexes = {
+    @Index(name = "idx_tenant_provisioning_status", columnList = "status, created_at")
+})
+public class TenantProvisioning {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Column(name = "admin_username", nullable = false)
+    private String adminUsername;
+
+    @Column(name = "admin_email", nullable = false)
+    private String adminEmail;
+
+    @Column(name = "admin_password")
+    private String adminPassword;
+
+    @Column(name = "admin_first_name")
+    private String adminFirstName;
+
+    @Column(name = "admin_last_name")
+    private String adminLastName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    /**
+     * Set on every claim; only the worker holding the current token may finish the job
+     */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getCompanyId() { return companyId; }
+    public void setCompanyId(Long companyId) { this.companyId = companyId; }
+
+    public String getAdminUsername() { return adminUsername; }
+    public void setAdminUsername(String adminUsername) { this.adminUsername = adminUsername; }
+
+    public String getAdminEmail() { return adminEmail; }
+    public void setAdminEmail(String adminEmail) { this.adminEmail = adminEmail; }
+
+    public String getAdminPassword() { return adminPassword; }
+    public void setAdminPassword(String adminPassword) { this.adminPassword = adminPassword; }
+
+    public String getAdminFirstName() { return adminFirstName; }
+    public void setAdminFirstName(String adminFirstName) { this.adminFirstName = adminFirstName; }
+
+    public String getAdminLastName() { return adminLastName; }
+    public void setAdminLastName(String adminLastName) { this.adminLastName = adminLastName; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 public class Translation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "translations_id_seq")
+    @SequenceGenerator(name = "translations_id_seq", sequenceName = "translations_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "`key`", nullable = false, length = 255)
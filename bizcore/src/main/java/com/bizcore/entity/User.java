@@ -2,6 +2,7 @@ package com.bizcore.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -14,7 +15,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,9 +50,21 @@ public class User {
     @Column(name = "email_verified", nullable = false, columnDefinition = "boolean default false")
     private Boolean emailVerified = false;
 
-    @Column(name = "last_login")
+    /**
+     * Written only by LastLoginRecorder's batched UPDATE, so saving a user loaded earlier
+     * cannot overwrite a newer login time
+     */
+    @Column(name = "last_login", updatable = false)
     private LocalDateTime lastLogin;
 
+    /**
+     * Incremented whenever this user's roles, their permissions or the user's status change;
+     * managed by the database only (see UserRepository.incrementPermissionEpoch)
+     */
+    @Column(name = "permission_epoch", insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long permissionEpoch;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "user_roles",
@@ -123,6 +137,9 @@ public class User {
     public LocalDateTime getLastLogin() { return lastLogin; }
     public void setLastLogin(LocalDateTime lastLogin) { this.lastLogin = lastLogin; }
 
+    public long getPermissionEpoch() { return permissionEpoch; }
+    public void setPermissionEpoch(long permissionEpoch) { this.permissionEpoch = permissionEpoch; }
+
     public Set<Role> getRoles() { return roles; }
     public void setRoles(Set<Role> roles) { this.roles = roles; }
 
@@ -0,0 +1,149 @@
+package com.bizcore.filter;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Prepares request and response bodies for the request log in a single pass.
+ *
+ * JSON bodies are streamed token by token from the parser to a generator; the value of any
+ * field whose name is in bizcore.request-logging.redact-fields (case-insensitive) is replaced by
+ * a mask, whatever its type. Parsing stops once max-body-length input bytes have been read, so
+ * large payloads cost no more than the part that is kept. Bodies are usually captured only up to
+ * that limit, so a parse error at the end of a capture that was cut short counts as truncation,
+ * not bad JSON.
+ *
+ * A body that looks like JSON is streamed the same way whatever its Content-Type, since a
+ * mislabelled login request is logged too. Other bodies get a pattern mask over the same field
+ * names (JSON-like, form and "name: value" notation), and bodies of /api/auth/ endpoints that
+ * are not JSON are not logged at all.
+ */
+@Component
+public class JsonBodyRedactor {
+
+    static final String MASK = "***REDACTED***";
+    static final String TRUNCATED = "... [truncated]";
+    static final String OMITTED = "[non-JSON body omitted]";
+
+    private static final String AUTH_PATH_PREFIX = "/api/auth/";
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JsonFactory jsonFactory;
+    private Set<String> redactFields;
+    private Pattern fallbackPattern;
+
+    @PostConstruct
+    public void init() {
+        jsonFactory = objectMapper.getFactory();
+        Set<String> fields = new HashSet<>();
+        for (String field : properties.getRequestLogging().getRedactFields()) {
+            fields.add(field.toLowerCase(Locale.ROOT));
+        }
+        redactFields = Set.copyOf(fields);
+
+        // "name" or name, then : or =, then a quoted string or everything up to a separator
+        String names = fields.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        fallbackPattern = Pattern.compile("(\"?\\b(?:" + names + ")\\b\"?\\s*[:=]\\s*)(\"(?:[^\"\\\\]|\\\\.)*\"?|[^&,;}\\]\\s]*)",
+            Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * @param body        captured body bytes
+     * @param length      number of valid bytes in body
+     * @param cutShort    true if the body was longer than the captured bytes
+     * @param contentType the Content-Type header, may be null
+     * @param path        the request URI
+     * @return the loggable body, or null if it is empty
+     */
+    public String redact(byte[] body, int length, boolean cutShort, String contentType, String path) {
+        if (body == null || length <= 0) {
+            return null;
+        }
+        int maxLength = properties.getRequestLogging().getMaxBodyLength();
+        if (!isJson(contentType) && !looksLikeJson(body, length)) {
+            if (path != null && path.startsWith(AUTH_PATH_PREFIX)) {
+                return OMITTED;
+            }
+            String text = new String(body, 0, Math.min(length, maxLength), StandardCharsets.UTF_8);
+            return truncate(fallbackPattern.matcher(text).replaceAll("$1" + MASK), cutShort || length > maxLength);
+        }
+
+        StringWriter out = new StringWriter(Math.min(length, maxLength) + 16);
+        boolean truncated = false;
+        try (JsonParser parser = jsonFactory.createParser(body, 0, length);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            // On early exit, leave the output open instead of appending closing brackets
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (parser.currentLocation().getByteOffset() > maxLength) {
+                    truncated = true;
+                    break;
+                }
+                if (token == JsonToken.FIELD_NAME && redactFields.contains(parser.currentName().toLowerCase(Locale.ROOT))) {
+                    generator.writeFieldName(parser.currentName());
+                    parser.nextToken();
+                    parser.skipChildren();
+                    generator.writeString(MASK);
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            if (cutShort) {
+                return out + TRUNCATED;
+            }
+            // Malformed JSON: keep what was redacted so far, never the unparsed rest
+            return out + "... [invalid JSON]";
+        }
+
+        String redacted = out.toString();
+        return truncate(redacted.length() > maxLength ? redacted.substring(0, maxLength) : redacted,
+            cutShort || truncated || redacted.length() > maxLength);
+    }
+
+    private static String truncate(String body, boolean truncated) {
+        return truncated ? body + TRUNCATED : body;
+    }
+
+    private static boolean looksLikeJson(byte[] body, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = body[i];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return b == '{' || b == '[';
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("application/json") || type.contains("+json");
+    }
+}
@@ -0,0 +1,169 @@
+package com.bizcore.filter;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which requests reach the request log and whether their bodies are captured.
+ *
+ * Skip rules and routes from bizcore.request-logging are compiled into path patterns once at
+ * startup. The keep decision is taken after the response (tail-based): errors, requests that
+ * failed with an exception and slow requests are always kept, the rest are sampled at the rate
+ * of the first matching route, else of the handler's {@link RequestLogPolicy}, else the default.
+ */
+@Component
+public class RequestLogPolicies {
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private List<PathPattern> skipPatterns;
+    private Set<String> skipExtensions;
+    private List<Route> routes;
+    private Policy defaultPolicy;
+    private long slowThreshold;
+    private Counter sampledOut;
+
+    private final Map<Method, Policy> handlerPolicies = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        BizCoreProperties.RequestLogging settings = properties.getRequestLogging();
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+
+        List<PathPattern> skip = new ArrayList<>();
+        settings.getSkipPaths().forEach(pattern -> skip.add(parser.parse(pattern)));
+        skipPatterns = List.copyOf(skip);
+
+        Set<String> extensions = new HashSet<>();
+        settings.getSkipExtensions().forEach(extension -> extensions.add(extension.toLowerCase(Locale.ROOT)));
+        skipExtensions = Set.copyOf(extensions);
+
+        List<Route> compiled = new ArrayList<>();
+        for (BizCoreProperties.RoutePolicy route : settings.getRoutes()) {
+            Set<String> methods = new HashSet<>();
+            route.getMethods().forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+            compiled.add(new Route(parser.parse(route.getPattern()), Set.copyOf(methods),
+                new Policy(route.getSampleRate(), route.isCaptureBodies())));
+        }
+        routes = List.copyOf(compiled);
+
+        defaultPolicy = new Policy(settings.getDefaultSampleRate(), true);
+        slowThreshold = settings.getSlowThreshold();
+        sampledOut = Counter.builder("bizcore.request.log.sampled-out")
+            .description("Requests not logged because they were not sampled")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the request is never logged (static resources, health checks)
+     */
+    public boolean isSkipped(HttpServletRequest request) {
+        String path = path(request);
+        int dot = path.lastIndexOf('.');
+        if (dot > path.lastIndexOf('/') && skipExtensions.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : skipPatterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the policy of the first configured route matching the request, or null if none does
+     */
+    public Policy matchRoute(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path(request));
+        for (Route route : routes) {
+            if ((route.methods.isEmpty() || route.methods.contains(request.getMethod()))
+                    && route.pattern.matches(container)) {
+                return route.policy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the effective policy once the request has been dispatched.
+     *
+     * @param routePolicy the result of {@link #matchRoute}, which takes precedence
+     */
+    public Policy resolve(HttpServletRequest request, Policy routePolicy) {
+        if (routePolicy != null) {
+            return routePolicy;
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerPolicies.computeIfAbsent(handlerMethod.getMethod(), this::annotatedPolicy);
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * Tail-based keep decision, taken after the response is complete.
+     */
+    public boolean shouldLog(Policy policy, int status, long durationMs, boolean failed) {
+        if (failed || status >= 400 || durationMs >= slowThreshold || policy.sampleRate >= 1.0) {
+            return true;
+        }
+        if (policy.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < policy.sampleRate) {
+            return true;
+        }
+        sampledOut.increment();
+        return false;
+    }
+
+    private Policy annotatedPolicy(Method method) {
+        RequestLogPolicy annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequestLogPolicy.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RequestLogPolicy.class);
+        }
+        return annotation != null ? new Policy(annotation.sampleRate(), annotation.captureBodies()) : defaultPolicy;
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+
+    /**
+     * Effective logging policy of a request.
+     */
+    public record Policy(double sampleRate, boolean captureBodies) {
+    }
+
+    private record Route(PathPattern pattern, Set<String> methods, Policy policy) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.bizcore.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets how requests served by a handler are logged.
+ *
+ * Errors (>= 400) and slow requests are logged regardless of the sample rate. A route
+ * configured under bizcore.request-logging.routes takes precedence, so the policy can be tuned
+ * without a release. On a class it applies to every method that is not annotated itself.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequestLogPolicy {
+
+    /**
+     * Fraction of successful, fast requests logged
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * Whether request and response bodies are captured
+     */
+    boolean captureBodies() default true;
+}
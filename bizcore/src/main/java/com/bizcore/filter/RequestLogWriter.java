@@ -0,0 +1,204 @@
+package com.bizcore.filter;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.bizcore.entity.RequestLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind sink for request logs.
+ *
+ * Request threads only put the log into a bounded queue; a single background thread drains it
+ * and writes up to batch-size rows per JDBC batch (sent as multi-row INSERTs by the driver), so
+ * logging adds no database round trip to the response. When the queue is full the
+ * overflow-policy decides: DROP discards the entry, SAMPLE starts keeping only sample-rate of
+ * successful requests once the queue is 3/4 full (errors are always offered), and BLOCK waits up
+ * to max-block for room. Queue depth, drops and flush latency are published as
+ * bizcore.request.log.* metrics. Whatever is queued at shutdown is flushed.
+ */
+@Component
+public class RequestLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO request_logs (company_id, user_id, username, method, endpoint, query_params, request_body, " +
+        "response_status, response_body, error_message, ip_address, user_agent, duration_ms, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<RequestLog> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter droppedFull;
+    private Counter droppedSampled;
+    private Counter droppedFailed;
+    private Counter written;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        BizCoreProperties.RequestLogging settings = properties.getRequestLogging();
+        queue = new ArrayBlockingQueue<>(settings.getBufferCapacity());
+
+        Gauge.builder("bizcore.request.log.queue", queue, BlockingQueue::size)
+            .description("Request logs waiting to be written")
+            .register(meterRegistry);
+        droppedFull = droppedCounter("full");
+        droppedSampled = droppedCounter("sampled");
+        droppedFailed = droppedCounter("failed");
+        written = Counter.builder("bizcore.request.log.written")
+            .description("Request logs written to the database")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("bizcore.request.log.flush")
+            .description("Time spent writing one batch of request logs")
+            .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::run, "bizcore-request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Request log writer started: capacity {}, batch size {}, overflow policy {}",
+            settings.getBufferCapacity(), settings.getBatchSize(), settings.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues a log for writing; never throws and never blocks longer than max-block.
+     */
+    public void enqueue(RequestLog log) {
+        BizCoreProperties.RequestLogging settings = properties.getRequestLogging();
+
+        switch (settings.getOverflowPolicy()) {
+            case SAMPLE -> {
+                boolean underPressure = queue.size() * 4L >= settings.getBufferCapacity() * 3L;
+                boolean isError = log.getResponseStatus() != null && log.getResponseStatus() >= 400;
+                if (underPressure && !isError && ThreadLocalRandom.current().nextDouble() >= settings.getSampleRate()) {
+                    droppedSampled.increment();
+                    return;
+                }
+                if (!queue.offer(log)) {
+                    droppedFull.increment();
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(log, settings.getMaxBlock(), TimeUnit.MILLISECONDS)) {
+                        droppedFull.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedFull.increment();
+                }
+            }
+            default -> {
+                if (!queue.offer(log)) {
+                    droppedFull.increment();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        List<RequestLog> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            BizCoreProperties.RequestLogging settings = properties.getRequestLogging();
+            try {
+                RequestLog first = running ? queue.poll(settings.getFlushInterval(), TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, settings.getBatchSize() - 1);
+            } catch (InterruptedException e) {
+                // stop() interrupts the poll; the loop then drains what is left
+                continue;
+            }
+
+            flush(batch);
+            batch.clear();
+        }
+        logger.info("Request log writer stopped");
+    }
+
+    private void flush(List<RequestLog> batch) {
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), RequestLogWriter::bind);
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // One bad row (e.g. a user deleted meanwhile) must not cost the whole batch
+            logger.warn("Request log batch of {} failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (RequestLog log : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, log));
+                    written.increment();
+                } catch (RuntimeException rowError) {
+                    droppedFailed.increment();
+                    logger.debug("Dropped request log for {} {}", log.getMethod(), log.getEndpoint(), rowError);
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, RequestLog log) throws SQLException {
+        ps.setObject(1, log.getCompanyId(), Types.BIGINT);
+        ps.setObject(2, log.getUserId(), Types.BIGINT);
+        ps.setString(3, log.getUsername());
+        ps.setString(4, log.getMethod());
+        ps.setString(5, log.getEndpoint());
+        ps.setString(6, log.getQueryParams());
+        ps.setString(7, log.getRequestBody());
+        ps.setObject(8, log.getResponseStatus(), Types.INTEGER);
+        ps.setString(9, log.getResponseBody());
+        ps.setString(10, log.getErrorMessage());
+        ps.setString(11, log.getIpAddress());
+        ps.setString(12, log.getUserAgent());
+        ps.setObject(13, log.getDurationMs(), Types.BIGINT);
+        ps.setTimestamp(14, log.getCreatedAt() != null ? Timestamp.valueOf(log.getCreatedAt()) : null);
+    }
+
+    private Counter droppedCounter(String reason) {
+        return Counter.builder("bizcore.request.log.dropped")
+            .tag("reason", reason)
+            .description("Request logs discarded instead of written")
+            .register(meterRegistry);
+    }
+}
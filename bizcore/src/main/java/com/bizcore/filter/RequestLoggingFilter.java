@@ -1,7 +1,7 @@
 package com.bizcore.filter;
 
+import com.bizcore.autoconfigure.BizCoreProperties;
 import com.bizcore.entity.RequestLog;
-import com.bizcore.repository.RequestLogRepository;
 import com.bizcore.security.JwtTokenProvider;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,11 +13,9 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Enumeration;
+import java.time.LocalDateTime;
 
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 1)
@@ -26,11 +24,20 @@ public class RequestLoggingFilter implements Filter {
     private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
 
     @Autowired
-    private RequestLogRepository requestLogRepository;
+    private RequestLogWriter requestLogWriter;
+
+    @Autowired
+    private JsonBodyRedactor bodyRedactor;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private RequestLogPolicies requestLogPolicies;
+
+    @Autowired
+    private BizCoreProperties properties;
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -39,76 +46,81 @@ public class RequestLoggingFilter implements Filter {
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
         // Skip logging for static resources and health checks
-        String requestUri = httpRequest.getRequestURI();
-        if (shouldSkipLogging(requestUri)) {
+        if (requestLogPolicies.isSkipped(httpRequest)) {
             chain.doFilter(request, response);
             return;
         }
 
-        // Wrap request and response to cache content
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(httpRequest);
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(httpResponse);
+        // Capture at most max-body-length bytes of each body; the response streams to the client as it is written.
+        // A configured route can rule out bodies up front; a handler annotation is only known after dispatch.
+        RequestLogPolicies.Policy routePolicy = requestLogPolicies.matchRoute(httpRequest);
+        CappedRequestWrapper wrappedRequest = null;
+        TeeCaptureResponseWrapper wrappedResponse = null;
+        if (routePolicy == null || routePolicy.captureBodies()) {
+            int captureLimit = properties.getRequestLogging().getMaxBodyLength();
+            wrappedRequest = new CappedRequestWrapper(httpRequest, captureLimit);
+            wrappedResponse = new TeeCaptureResponseWrapper(httpResponse, captureLimit);
+        }
 
         long startTime = System.currentTimeMillis();
+        boolean failed = true;
 
         try {
-            chain.doFilter(wrappedRequest, wrappedResponse);
+            chain.doFilter(wrappedRequest != null ? wrappedRequest : httpRequest,
+                wrappedResponse != null ? wrappedResponse : httpResponse);
+            failed = false;
         } finally {
             long duration = System.currentTimeMillis() - startTime;
 
-            // Log request asynchronously
-            logRequest(wrappedRequest, wrappedResponse, duration);
-
-            // Copy response body back to the response
-            wrappedResponse.copyBodyToResponse();
+            // Tail-based decision: errors and slow requests are always kept, the rest are sampled per route
+            RequestLogPolicies.Policy policy = requestLogPolicies.resolve(httpRequest, routePolicy);
+            if (requestLogPolicies.shouldLog(policy, httpResponse.getStatus(), duration, failed)) {
+                boolean withBodies = policy.captureBodies();
+                logRequest(httpRequest, httpResponse, withBodies ? wrappedRequest : null,
+                    withBodies ? wrappedResponse : null, duration);
+            }
         }
     }
 
-    private void logRequest(ContentCachingRequestWrapper request,
-                           ContentCachingResponseWrapper response,
+    /**
+     * @param requestBody  the request capture, or null if bodies are not logged
+     * @param responseBody the response capture, or null if bodies are not logged
+     */
+    private void logRequest(HttpServletRequest request,
+                           HttpServletResponse response,
+                           CappedRequestWrapper requestBody,
+                           TeeCaptureResponseWrapper responseBody,
                            long duration) {
         try {
             RequestLog log = new RequestLog();
 
-            // Extract user info from JWT token
-            String token = extractToken(request);
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsername(token);
-                Long userId = jwtTokenProvider.getUserId(token);
-                Long companyId = jwtTokenProvider.getCompanyId(token);
-
-                log.setUsername(username);
-                log.setUserId(userId);
-                log.setCompanyId(companyId);
-            }
+            // Extract user info from JWT token (already verified by JwtAuthenticationFilter when present)
+            jwtTokenProvider.resolveToken(request).ifPresent(token -> {
+                log.setUsername(token.getUsername());
+                log.setUserId(token.getUserId());
+                log.setCompanyId(token.getCompanyId());
+            });
 
             // Request details
             log.setMethod(request.getMethod());
             log.setEndpoint(request.getRequestURI());
             log.setQueryParams(request.getQueryString());
 
-            // Request body (limit size and sanitize sensitive data)
-            String requestBody = getRequestBody(request);
+            // Request body (sensitive fields masked, truncated to max-body-length)
             if (requestBody != null) {
-                requestBody = sanitizeSensitiveData(requestBody);
-                if (requestBody.length() > 5000) {
-                    requestBody = requestBody.substring(0, 5000) + "... [truncated]";
-                }
+                byte[] content = requestBody.getContentAsByteArray();
+                log.setRequestBody(bodyRedactor.redact(content, content.length,
+                    requestBody.isOverflowed(), request.getContentType(), request.getRequestURI()));
             }
-            log.setRequestBody(requestBody);
 
             // Response details
             log.setResponseStatus(response.getStatus());
 
-            // Response body (limit size and sanitize sensitive data)
-            String responseBody = getResponseBody(response);
+            // Response body (sensitive fields masked, truncated to max-body-length)
             if (responseBody != null) {
-                responseBody = sanitizeSensitiveData(responseBody);
-                if (responseBody.length() > 5000) {
-                    responseBody = responseBody.substring(0, 5000) + "... [truncated]";
-                }
+                log.setResponseBody(bodyRedactor.redact(responseBody.getCapturedBody(), responseBody.getCapturedLength(),
+                    responseBody.isTruncated(), response.getContentType(), request.getRequestURI()));
             }
-            log.setResponseBody(responseBody);
 
             // Client info
             log.setIpAddress(getClientIpAddress(request));
@@ -122,8 +134,9 @@ public class RequestLoggingFilter implements Filter {
                 log.setErrorMessage("HTTP " + response.getStatus() + " Error");
             }
 
-            // Save to database asynchronously
-            requestLogRepository.save(log);
+            // Queued for the background batch writer; no database round trip on the request thread
+            log.setCreatedAt(LocalDateTime.now());
+            requestLogWriter.enqueue(log);
 
         } catch (Exception e) {
             // Don't let logging errors break the application
@@ -131,59 +144,11 @@ public class RequestLoggingFilter implements Filter {
         }
     }
 
-    private boolean shouldSkipLogging(String uri) {
-        return uri.startsWith("/app/assets/") ||
-               uri.startsWith("/css/") ||
-               uri.startsWith("/js/") ||
-               uri.startsWith("/images/") ||
-               uri.startsWith("/favicon.ico") ||
-               uri.startsWith("/actuator/health") ||
-               uri.endsWith(".css") ||
-               uri.endsWith(".js") ||
-               uri.endsWith(".png") ||
-               uri.endsWith(".jpg") ||
-               uri.endsWith(".jpeg") ||
-               uri.endsWith(".gif") ||
-               uri.endsWith(".svg") ||
-               uri.endsWith(".woff") ||
-               uri.endsWith(".woff2") ||
-               uri.endsWith(".ttf") ||
-               uri.endsWith(".eot");
-    }
-
-    private String extractToken(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-
-    private String getRequestBody(ContentCachingRequestWrapper request) {
-        try {
-            byte[] buf = request.getContentAsByteArray();
-            if (buf.length > 0) {
-                return new String(buf, 0, buf.length, StandardCharsets.UTF_8);
-            }
-        } catch (Exception e) {
-            logger.debug("Failed to read request body", e);
-        }
-        return null;
-    }
-
-    private String getResponseBody(ContentCachingResponseWrapper response) {
-        try {
-            byte[] buf = response.getContentAsByteArray();
-            if (buf.length > 0) {
-                return new String(buf, 0, buf.length, StandardCharsets.UTF_8);
-            }
-        } catch (Exception e) {
-            logger.debug("Failed to read response body", e);
-        }
-        return null;
-    }
-
-    private String getClientIpAddress(HttpServletRequest request) {
+    /**
+     * Client address as seen by the outermost proxy: the first X-Forwarded-For entry,
+     * then X-Real-IP, then the socket peer address. Client-supplied, so for display only.
+     */
+    private static String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
             return xForwardedFor.split(",")[0].trim();
@@ -198,40 +163,21 @@ public class RequestLoggingFilter implements Filter {
     }
 
     /**
-     * Sanitize sensitive data from request/response bodies
-     * Masks passwords, tokens, credit cards, etc.
+     * Caches the request body up to the capture limit and remembers whether the body was longer.
      */
-    private String sanitizeSensitiveData(String data) {
-        if (data == null || data.isEmpty()) {
-            return data;
-        }
+    private static class CappedRequestWrapper extends ContentCachingRequestWrapper {
 
-        try {
-            // List of sensitive field names to mask
-            String[] sensitiveFields = {
-                "password", "passwordConfirm", "currentPassword", "newPassword", "oldPassword",
-                "token", "accessToken", "refreshToken", "apiKey", "secretKey",
-                "creditCard", "cvv", "ssn", "socialSecurityNumber",
-                "secret", "privateKey", "authorization"
-            };
-
-            String sanitized = data;
-
-            // Mask sensitive fields in JSON format
-            for (String field : sensitiveFields) {
-                // Match patterns like: "password":"value" or "password": "value"
-                String pattern1 = "\"" + field + "\"\\s*:\\s*\"[^\"]*\"";
-                sanitized = sanitized.replaceAll(pattern1, "\"" + field + "\":\"***REDACTED***\"");
-
-                // Match patterns like: "password":value (without quotes)
-                String pattern2 = "\"" + field + "\"\\s*:\\s*[^,}\\]]+";
-                sanitized = sanitized.replaceAll(pattern2, "\"" + field + "\":\"***REDACTED***\"");
-            }
+        private boolean overflowed;
 
-            return sanitized;
-        } catch (Exception e) {
-            logger.debug("Failed to sanitize sensitive data", e);
-            return data;
+        CappedRequestWrapper(HttpServletRequest request, int limit) {
+            super(request, limit);
+        }
+
+        @Override
+        protected void handleContentOverflow(int contentCacheLimit) {
+            overflowed = true;
         }
+
+        boolean isOverflowed() { return overflowed; }
     }
 }
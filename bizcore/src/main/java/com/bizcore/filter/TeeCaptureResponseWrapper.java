@@ -0,0 +1,198 @@
+package com.bizcore.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Response wrapper for the request log that writes every byte straight through to the client
+ * and copies at most the first limit bytes aside.
+ *
+ * Unlike ContentCachingResponseWrapper nothing is held back, so time-to-first-byte and heap use
+ * do not depend on the response size. Both the output stream and the writer tee the container's
+ * own stream and writer, so the container still enforces that only one of them is used and
+ * still owns all buffering; {@link #reset()} and {@link #resetBuffer()} discard the capture
+ * together with the container's buffer. The capture buffer belongs to this wrapper and grows
+ * on demand up to the limit, so it stays valid whichever thread completes the request.
+ */
+class TeeCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int limit;
+    private byte[] buffer;
+    private int captured;
+    private long total;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    TeeCaptureResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.limit = limit;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new TeeWriter(super.getWriter(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        clearCapture();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        clearCapture();
+    }
+
+    byte[] getCapturedBody() { return buffer; }
+    int getCapturedLength() { return captured; }
+
+    /**
+     * @return true if the body was longer than what was captured
+     */
+    boolean isTruncated() { return total > captured; }
+
+    /**
+     * Drops the capture and the tees, so the next getWriter/getOutputStream call goes to the
+     * container again, as the servlet contract allows after a reset.
+     */
+    private void clearCapture() {
+        captured = 0;
+        total = 0;
+        outputStream = null;
+        writer = null;
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        int copied = Math.min(limit - captured, length);
+        if (copied > 0) {
+            ensureCapacity(captured + copied);
+            System.arraycopy(bytes, offset, buffer, captured, copied);
+            captured += copied;
+        }
+        total += length;
+    }
+
+    private void ensureCapacity(int required) {
+        if (buffer == null) {
+            buffer = new byte[Math.min(limit, Math.max(INITIAL_CAPACITY, required))];
+        } else if (buffer.length < required) {
+            buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(buffer.length * 2, required)));
+        }
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (captured < limit) {
+                ensureCapacity(captured + 1);
+                buffer[captured++] = (byte) b;
+            }
+            total++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+
+    /**
+     * Writes characters through to the container's writer and captures their encoded bytes.
+     * Once the capture is full only the length is counted, without encoding.
+     */
+    private class TeeWriter extends Writer {
+
+        private final PrintWriter delegate;
+        private final Charset charset;
+
+        TeeWriter(PrintWriter delegate, Charset charset) {
+            this.delegate = delegate;
+            this.charset = charset;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            delegate.write(chars, offset, length);
+            if (captured < limit) {
+                byte[] encoded = new String(chars, offset, length).getBytes(charset);
+                capture(encoded, 0, encoded.length);
+            } else {
+                total += length;
+            }
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            delegate.write(text, offset, length);
+            if (captured < limit) {
+                byte[] encoded = text.substring(offset, offset + length).getBytes(charset);
+                capture(encoded, 0, encoded.length);
+            } else {
+                total += length;
+            }
+        }
+
+        @Override
+        public void flush() {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
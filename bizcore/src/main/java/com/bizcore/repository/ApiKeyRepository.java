@@ -0,0 +1,26 @@
+package com.bizcore.repository;
+
+import com.bizcore.entity.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+
+    /**
+     * Loads a key with its company, roles and role permissions in one indexed lookup.
+     */
+    @Query("SELECT k FROM ApiKey k JOIN FETCH k.company LEFT JOIN FETCH k.roles r LEFT JOIN FETCH r.permissions " +
+           "WHERE k.keyDigest = :keyDigest")
+    Optional<ApiKey> findByKeyDigestWithRoles(@Param("keyDigest") String keyDigest);
+
+    @Query("SELECT DISTINCT k FROM ApiKey k LEFT JOIN FETCH k.roles WHERE k.company.id = :companyId ORDER BY k.id")
+    List<ApiKey> findByCompanyIdWithRoles(@Param("companyId") Long companyId);
+
+    Optional<ApiKey> findByIdAndCompanyId(Long id, Long companyId);
+}
@@ -2,6 +2,9 @@ package com.bizcore.repository;
 
 import com.bizcore.entity.Company;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,27 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     boolean existsByCode(String code);
     boolean existsByEmail(String email);
     List<Company> findByActiveTrue();
+
+    @Modifying
+    @Query("UPDATE Company c SET c.permissionEpoch = c.permissionEpoch + 1 WHERE c.id = :companyId")
+    int incrementPermissionEpoch(@Param("companyId") Long companyId);
+
+    @Query("SELECT c.permissionEpoch FROM Company c WHERE c.id = :companyId")
+    Optional<Long> findPermissionEpoch(@Param("companyId") Long companyId);
+
+    /**
+     * @return (company id, permission epoch) pairs for all companies
+     */
+    @Query("SELECT c.id, c.permissionEpoch FROM Company c")
+    List<Object[]> findAllPermissionEpochs();
+
+    @Query("SELECT c.id AS id, c.code AS code, c.active AS active, c.subscriptionPlan AS subscriptionPlan FROM Company c")
+    List<TenantSummary> findAllTenants();
+
+    interface TenantSummary {
+        Long getId();
+        String getCode();
+        Boolean getActive();
+        String getSubscriptionPlan();
+    }
 }
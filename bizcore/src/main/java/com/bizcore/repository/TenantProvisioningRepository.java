@@ -0,0 +1,9 @@
+package com.bizcore.repository;
+
+import com.bizcore.entity.TenantProvisioning;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TenantProvisioningRepository extends JpaRepository<TenantProvisioning, String> {
+}
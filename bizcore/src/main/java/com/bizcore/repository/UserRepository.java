@@ -4,6 +4,7 @@ import com.bizcore.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,6 +22,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.company.code = :companyCode AND u.username = :username")
     Optional<User> findByCompanyCodeAndUsername(@Param("companyCode") String companyCode, @Param("username") String username);
 
+    /**
+     * Reads only what the password check needs, without loading roles or applications.
+     */
+    @Query("SELECT u.id AS id, u.password AS password, u.active AS active " +
+           "FROM User u WHERE u.company.id = :companyId AND u.username = :username")
+    Optional<LoginCredentials> findLoginCredentials(@Param("companyId") Long companyId, @Param("username") String username);
+
+    /**
+     * Loads a user with company, roles and role permissions in one statement.
+     */
+    @Query("SELECT u FROM User u JOIN FETCH u.company LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions WHERE u.id = :id")
+    Optional<User> findWithCompanyAndRolesById(@Param("id") Long id);
+
+    /**
+     * Initializes the applications of a user already loaded in the current persistence context.
+     * Kept separate from {@link #findWithCompanyAndRolesById} to avoid a roles x applications product.
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.applications WHERE u.id = :id")
+    Optional<User> findWithApplicationsById(@Param("id") Long id);
+
     @Query("SELECT u FROM User u WHERE u.company.code = :companyCode AND u.email = :email")
     Optional<User> findByCompanyCodeAndEmail(@Param("companyCode") String companyCode, @Param("email") String email);
 
@@ -36,4 +57,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u JOIN u.roles r WHERE u.company.id = :companyId AND r.name = :roleName")
     List<User> findByCompanyIdAndRoleName(@Param("companyId") Long companyId, @Param("roleName") String roleName);
+
+    @Modifying
+    @Query("UPDATE User u SET u.permissionEpoch = u.permissionEpoch + 1 WHERE u.id = :userId")
+    int incrementPermissionEpoch(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.permissionEpoch = u.permissionEpoch + 1 " +
+           "WHERE u.id IN (SELECT m.id FROM User m JOIN m.roles r WHERE r.id = :roleId)")
+    int incrementPermissionEpochForRole(@Param("roleId") Long roleId);
+
+    @Query("SELECT u.permissionEpoch FROM User u WHERE u.id = :userId")
+    Optional<Long> findPermissionEpoch(@Param("userId") Long userId);
+
+    /**
+     * @return (user id, permission epoch) pairs for the members of the role
+     */
+    @Query("SELECT u.id, u.permissionEpoch FROM User u JOIN u.roles r WHERE r.id = :roleId")
+    List<Object[]> findPermissionEpochsForRole(@Param("roleId") Long roleId);
+
+    /**
+     * @return (user id, permission epoch) pairs for all users whose epoch ever moved
+     */
+    @Query("SELECT u.id, u.permissionEpoch FROM User u WHERE u.permissionEpoch > 0")
+    List<Object[]> findAllPermissionEpochs();
+
+    interface LoginCredentials {
+        Long getId();
+        String getPassword();
+        Boolean getActive();
+    }
 }
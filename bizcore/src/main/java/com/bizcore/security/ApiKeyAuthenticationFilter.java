@@ -0,0 +1,61 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates machine clients by the API key in the bizcore.api-keys.header header.
+ * Runs after {@link JwtAuthenticationFilter} and leaves requests already authenticated by a bearer token alone.
+ */
+@Component
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ApiKeyAuthenticator apiKeyAuthenticator;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return JwtAuthenticationFilter.isUnauthenticatedPath(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = request.getHeader(properties.getApiKeys().getHeader());
+
+        if (key != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<TokenAuthentication> authentication =
+                apiKeyAuthenticator.authenticate(key.trim(), detailsSource.buildDetails(request));
+
+            if (authentication.isEmpty()) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid API key");
+                return;
+            }
+            if (authentication.get().getAuthorities().isEmpty()) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "API key has no roles or permissions assigned");
+                return;
+            }
+
+            SecurityContextHolder.getContext().setAuthentication(authentication.get());
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
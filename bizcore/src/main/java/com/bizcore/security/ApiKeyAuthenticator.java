@@ -0,0 +1,275 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.bizcore.entity.ApiKey;
+import com.bizcore.entity.Permission;
+import com.bizcore.entity.Role;
+import com.bizcore.repository.ApiKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Authenticates API keys without password hashing.
+ *
+ * Keys are random 256-bit secrets, so a keyed HMAC-SHA256 digest (with a server-side pepper)
+ * is enough to protect them at rest, and the digest doubles as the lookup key: one indexed
+ * equality match instead of a BCrypt comparison per candidate row. Resolved keys are cached by
+ * digest for bizcore.api-keys.cache-ttl together with their principal and shared authorities.
+ * An entry is dropped early when the key is revoked or one of its company's roles changes on this
+ * node, or when its company's permission epoch moves (company-wide access change).
+ *
+ * Every key ends in a checksum keyed by the pepper, so random or mistyped keys are rejected
+ * before any digest lookup or database query. Keys that pass the checksum but are unknown or
+ * revoked are cached as negatives. When the cache is full, expired entries go first, then
+ * negative ones, so valid keys are not pushed out by failed attempts.
+ */
+@Component
+public class ApiKeyAuthenticator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyAuthenticator.class);
+
+    public static final String KEY_PREFIX = "bzk_";
+
+    private static final int SECRET_LENGTH = 43;
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final int KEY_LENGTH = KEY_PREFIX.length() + SECRET_LENGTH + CHECKSUM_LENGTH;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+
+    @Autowired
+    private AuthorityCache authorityCache;
+
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private SecretKeySpec pepper;
+    private Counter rejections;
+
+    @PostConstruct
+    public void init() {
+        String configured = properties.getApiKeys().getPepper();
+        if (!StringUtils.hasText(configured)) {
+            logger.warn("bizcore.api-keys.pepper not set; using bizcore.jwt-secret. "
+                + "Rotating the JWT secret will then invalidate all API keys.");
+            configured = properties.getJwtSecret();
+        }
+        pepper = new SecretKeySpec(configured.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        rejections = Counter.builder("bizcore.api-key.rejected")
+            .description("Requests with an unknown, revoked or expired API key")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return a new random key in its presentable form ("bzk_" + 43 base64url characters of secret
+     *         + 8 characters of checksum)
+     */
+    public String generateKey() {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        return KEY_PREFIX + encoded + checksum(encoded);
+    }
+
+    /**
+     * @return the hex HMAC-SHA256 of the key under the configured pepper
+     */
+    public String digest(String key) {
+        return HexFormat.of().formatHex(mac().doFinal(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the authentication for an active, unexpired key, or empty if the key is not valid
+     */
+    public Optional<TokenAuthentication> authenticate(String key, Object details) {
+        if (!isWellFormed(key)) {
+            rejections.increment();
+            return Optional.empty();
+        }
+
+        String digest = digest(key);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(digest);
+        if (entry == null || entry.isOutdated(now, permissionEpochs)) {
+            entry = load(digest, now);
+        }
+
+        if (entry.principal() == null || (entry.expiresAtMillis() > 0 && entry.expiresAtMillis() <= now)) {
+            rejections.increment();
+            return Optional.empty();
+        }
+        return Optional.of(new TokenAuthentication(entry.principal(), entry.authorities(), details));
+    }
+
+    /**
+     * Drops a key from this node's cache, e.g. after it was revoked.
+     */
+    public void invalidate(String digest) {
+        entries.remove(digest);
+    }
+
+    /**
+     * Drops all keys of a company from this node's cache, e.g. after one of its roles changed.
+     * Other nodes pick the change up within cache-ttl.
+     */
+    public void invalidateCompany(Long companyId) {
+        entries.values().removeIf(entry -> companyId.equals(entry.companyId()));
+    }
+
+    /**
+     * Everything the principal needs is fetched by one JOIN FETCH query, so no transaction is held here.
+     */
+    private Entry load(String digest, long now) {
+        BizCoreProperties.ApiKeys settings = properties.getApiKeys();
+        if (entries.size() >= settings.getCacheMaxSize()) {
+            evict(settings.getCacheMaxSize(), now);
+        }
+
+        Optional<ApiKey> found = apiKeyRepository.findByKeyDigestWithRoles(digest);
+        Entry entry;
+        if (found.isEmpty() || !found.get().isActive() || !found.get().getCompany().isActive()) {
+            entry = new Entry(null, null, null, 0, 0, now + settings.getCacheTtl());
+        } else {
+            entry = toEntry(found.get(), now + settings.getCacheTtl());
+        }
+        entries.put(digest, entry);
+        return entry;
+    }
+
+    /**
+     * Drops expired entries, then negative ones, then arbitrary ones until the cache is back to
+     * 90% of max-size. Only one thread evicts at a time; others may briefly overshoot.
+     */
+    private void evict(int maxSize, long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(cached -> cached.cachedUntil() <= now);
+            int target = maxSize - Math.max(1, maxSize / 10);
+            if (entries.size() > target) {
+                entries.values().removeIf(cached -> cached.principal() == null);
+            }
+            Iterator<String> digests = entries.keySet().iterator();
+            while (entries.size() > target && digests.hasNext()) {
+                digests.next();
+                digests.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Checks length, alphabet and checksum without touching the cache or the database.
+     */
+    private boolean isWellFormed(String key) {
+        if (key == null || key.length() != KEY_LENGTH || !key.startsWith(KEY_PREFIX)) {
+            return false;
+        }
+        for (int i = KEY_PREFIX.length(); i < KEY_LENGTH; i++) {
+            char c = key.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        String secret = key.substring(KEY_PREFIX.length(), KEY_PREFIX.length() + SECRET_LENGTH);
+        byte[] expected = checksum(secret).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = key.substring(KEY_PREFIX.length() + SECRET_LENGTH).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * @return 8 base64url characters of a pepper-keyed HMAC over the encoded secret, so valid
+     *         checksums cannot be produced without the server's pepper
+     */
+    private String checksum(String encodedSecret) {
+        byte[] mac = mac().doFinal(("checksum:" + encodedSecret).getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(mac, 6));
+    }
+
+    private Mac mac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(pepper);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private Entry toEntry(ApiKey apiKey, long cachedUntil) {
+        Set<String> roles = new LinkedHashSet<>();
+        Set<String> permissions = new LinkedHashSet<>();
+        for (Role role : apiKey.getRoles()) {
+            if (!role.isActive()) {
+                continue;
+            }
+            roles.add(role.getName().intern());
+            for (Permission permission : role.getPermissions()) {
+                permissions.add(permission.getCode().intern());
+            }
+        }
+
+        List<String> roleList = new ArrayList<>(roles);
+        List<String> permissionList = new ArrayList<>(permissions);
+        Long companyId = apiKey.getCompany().getId();
+        UserPrincipal principal = new UserPrincipal(null, companyId, apiKey.getCompany().getCode(),
+            "apikey:" + apiKey.getName(), roleList, permissionList);
+        long expiresAt = apiKey.getExpiresAt() != null
+            ? apiKey.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : 0;
+
+        permissionEpochs.observe(companyId, apiKey.getCompany().getPermissionEpoch());
+        return new Entry(principal, authorityCache.getAuthorities(roleList, permissionList), companyId,
+            apiKey.getCompany().getPermissionEpoch(), expiresAt, cachedUntil);
+    }
+
+    /**
+     * A resolved key; principal is null for unknown or inactive keys.
+     */
+    private record Entry(UserPrincipal principal, AuthoritySet authorities, Long companyId, long permissionEpoch,
+                         long expiresAtMillis, long cachedUntil) {
+
+        boolean isOutdated(long now, PermissionEpochs epochs) {
+            return cachedUntil <= now || (companyId != null && epochs.current(companyId) > permissionEpoch);
+        }
+    }
+}
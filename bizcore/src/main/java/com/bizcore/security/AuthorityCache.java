@@ -0,0 +1,63 @@
+package com.bizcore.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares immutable authority collections between principals with the same roles and permissions.
+ *
+ * Most users hold one of a handful of role combinations, so the authorities for a given
+ * (roles, permissions) fingerprint are built once and handed out to every request with that
+ * fingerprint. Individual authorities are shared too, so "ROLE_ADMIN" exists once per JVM,
+ * and each set carries hash indexes so authorization checks are constant-time.
+ */
+@Component
+public class AuthorityCache {
+
+    /**
+     * Upper bound on distinct fingerprints; exceeding it drops the cache and starts over
+     */
+    private static final int MAX_FINGERPRINTS = 1024;
+
+    private final Map<Fingerprint, AuthoritySet> authoritySets = new ConcurrentHashMap<>();
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    /**
+     * @return the shared, unmodifiable authorities: "ROLE_" + role for each role, then each permission
+     */
+    public AuthoritySet getAuthorities(List<String> roles, List<String> permissions) {
+        Fingerprint fingerprint = new Fingerprint(roles, permissions);
+        AuthoritySet cached = authoritySets.get(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (authoritySets.size() >= MAX_FINGERPRINTS) {
+            authoritySets.clear();
+        }
+        return authoritySets.computeIfAbsent(fingerprint, key -> build(key.roles(), key.permissions()));
+    }
+
+    private AuthoritySet build(List<String> roles, List<String> permissions) {
+        List<GrantedAuthority> built = new ArrayList<>(roles.size() + permissions.size());
+        roles.forEach(role -> built.add(authority(AuthoritySet.ROLE_PREFIX + role)));
+        permissions.forEach(permission -> built.add(authority(permission)));
+        return new AuthoritySet(built, roles, permissions);
+    }
+
+    private GrantedAuthority authority(String name) {
+        return authorities.computeIfAbsent(name, key -> new SimpleGrantedAuthority(key.intern()));
+    }
+
+    /**
+     * Claim lists from {@link VerifiedToken} are immutable, so they can be used as keys directly.
+     */
+    private record Fingerprint(List<String> roles, List<String> permissions) {
+    }
+}
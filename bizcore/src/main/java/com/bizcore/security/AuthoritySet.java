@@ -0,0 +1,62 @@
+package com.bizcore.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable authority collection with constant-time lookups by role, permission or authority name.
+ *
+ * Iterates like a plain list of GrantedAuthority, so Spring Security can use it anywhere,
+ * while {@link RequiresPermissionAuthorizationManager} and {@link UserPrincipal} query the hash sets.
+ * Instances are shared through {@link AuthorityCache}.
+ */
+public final class AuthoritySet extends AbstractList<GrantedAuthority> implements RandomAccess {
+
+    static final String ROLE_PREFIX = "ROLE_";
+
+    private final GrantedAuthority[] authorities;
+    private final Set<String> names;
+    private final Set<String> roles;
+    private final Set<String> permissions;
+
+    AuthoritySet(List<GrantedAuthority> authorities, List<String> roles, List<String> permissions) {
+        this.authorities = authorities.toArray(new GrantedAuthority[0]);
+        this.names = Set.copyOf(authorities.stream().map(GrantedAuthority::getAuthority).toList());
+        this.roles = Set.copyOf(roles);
+        this.permissions = Set.copyOf(permissions);
+    }
+
+    @Override
+    public GrantedAuthority get(int index) { return authorities[index]; }
+
+    @Override
+    public int size() { return authorities.length; }
+
+    /**
+     * @param authority a full authority name, e.g. "USER_VIEW" or "ROLE_ADMIN"
+     */
+    public boolean hasAuthority(String authority) {
+        return authority != null && names.contains(authority);
+    }
+
+    /**
+     * @param role a role name with or without the "ROLE_" prefix
+     */
+    public boolean hasRole(String role) {
+        if (role == null) {
+            return false;
+        }
+        return role.startsWith(ROLE_PREFIX) ? names.contains(role) : roles.contains(role);
+    }
+
+    public boolean hasPermission(String permission) {
+        return permission != null && permissions.contains(permission);
+    }
+
+    public Set<String> getRoles() { return roles; }
+    public Set<String> getPermissions() { return permissions; }
+}
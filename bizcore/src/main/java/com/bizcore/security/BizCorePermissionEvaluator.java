@@ -0,0 +1,42 @@
+package com.bizcore.security;
+
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+
+/**
+ * Resolves hasPermission(...) expressions against the caller's permission codes.
+ *
+ * Permissions in BizCore are granted per company rather than per object, so the target
+ * only scopes the check; the permission argument must be one of the caller's codes.
+ * Lookups are constant-time for token-authenticated callers.
+ */
+public class BizCorePermissionEvaluator implements PermissionEvaluator {
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return hasPermission(authentication, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return hasPermission(authentication, permission);
+    }
+
+    static boolean hasPermission(Authentication authentication, Object permission) {
+        if (authentication == null || !(permission instanceof String code)) {
+            return false;
+        }
+        if (authentication.getAuthorities() instanceof AuthoritySet authorities) {
+            return authorities.hasPermission(code);
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (code.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -5,16 +5,13 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -22,9 +19,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private AuthorityCache authorityCache;
+
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getServletPath();
+        return isUnauthenticatedPath(request.getServletPath());
+    }
+
+    /**
+     * Paths that never carry credentials; /api/auth/introspect is the one /api/auth endpoint that does.
+     */
+    static boolean isUnauthenticatedPath(String path) {
+        if (path.equals("/api/auth/introspect")) {
+            return false;
+        }
         return path.startsWith("/api/auth/") || path.startsWith("/api/public/") || path.startsWith("/actuator/");
     }
 
@@ -32,25 +46,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String token = getTokenFromRequest(request);
+        Optional<VerifiedToken> verified = tokenProvider.resolveToken(request);
 
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-            Long userId = tokenProvider.getUserId(token);
-            String username = tokenProvider.getUsername(token);
-            List<String> roles = tokenProvider.getRoles(token);
-            List<String> permissions = tokenProvider.getPermissions(token);
+        if (verified.isPresent()) {
+            VerifiedToken token = verified.get();
 
-            // Add both roles (with ROLE_ prefix) and permissions as authorities
-            // Handle null-safety for roles and permissions
-            List<SimpleGrantedAuthority> authorities = new java.util.ArrayList<>();
-
-            if (roles != null && !roles.isEmpty()) {
-                roles.forEach(role -> authorities.add(new SimpleGrantedAuthority("ROLE_" + role)));
+            // Roles or permissions changed since the token was issued: make the client refresh it
+            if (permissionEpochs.isStale(token)) {
+                response.setHeader("WWW-Authenticate",
+                    "Bearer error=\"invalid_token\", error_description=\"Permissions changed; refresh the token\"");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Permissions changed; refresh the token");
+                return;
             }
 
-            if (permissions != null && !permissions.isEmpty()) {
-                permissions.forEach(perm -> authorities.add(new SimpleGrantedAuthority(perm)));
-            }
+            // Roles (with ROLE_ prefix) and permissions, shared across principals with the same claims
+            AuthoritySet authorities = authorityCache.getAuthorities(token.getRoles(), token.getPermissions());
 
             // If user has no authorities, deny authentication
             if (authorities.isEmpty()) {
@@ -58,30 +68,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            UserPrincipal principal = new UserPrincipal(
-                userId,
-                tokenProvider.getCompanyId(token),
-                tokenProvider.getCompanyCode(token),
-                username,
-                roles != null ? roles : List.of(),
-                permissions != null ? permissions : List.of()
-            );
-
-            UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(principal, null, authorities);
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            TokenAuthentication authentication = new TokenAuthentication(
+                new UserPrincipal(token, authorities), authorities, detailsSource.buildDetails(request));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
     }
-
-    private String getTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
 }
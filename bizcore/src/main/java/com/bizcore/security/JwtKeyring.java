@@ -0,0 +1,226 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing and verification keys for JWTs, built once at startup from {@link BizCoreProperties}.
+ *
+ * New tokens are signed with the primary key and carry its id in the "kid" header.
+ * Tokens are verified by a single prebuilt parser that picks the key by "kid", so
+ * previous keys keep working until their acceptUntil instant and secrets can be
+ * rotated node by node without logging everybody out. Tokens without a "kid"
+ * (issued before key ids existed) are verified with the primary key.
+ *
+ * With ES256/EDDSA signing, the public halves of all accepted asymmetric keys are
+ * published as a JWKS document so downstream applications can verify tokens locally.
+ */
+@Component
+public class JwtKeyring {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyring.class);
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String signingKeyId;
+    private Key signingKey;
+    private Map<String, KeyEntry> verificationKeys;
+    private JwtParser parser;
+    private byte[] jwksJson;
+    private String jwksEtag;
+
+    @PostConstruct
+    public void init() {
+        Map<String, KeyEntry> keys = new HashMap<>();
+        List<Jwk<?>> publicJwks = new ArrayList<>();
+
+        for (BizCoreProperties.JwtKey previous : properties.getJwtPreviousKeys()) {
+            if (previous.getId() == null) {
+                throw new IllegalStateException("bizcore.jwt-previous-keys entries require an id");
+            }
+            if (StringUtils.hasText(previous.getPublicKey())) {
+                PublicKey publicKey = parsePublicKey(previous.getPublicKey());
+                keys.put(previous.getId(), new KeyEntry(publicKey, previous.getAcceptUntil()));
+                if (previous.getAcceptUntil() == null || previous.getAcceptUntil().isAfter(Instant.now())) {
+                    publicJwks.add(toJwk(previous.getId(), publicKey));
+                }
+            } else if (StringUtils.hasText(previous.getSecret())) {
+                keys.put(previous.getId(), new KeyEntry(hmacKey(previous.getSecret()), previous.getAcceptUntil()));
+            } else {
+                throw new IllegalStateException("bizcore.jwt-previous-keys entry '" + previous.getId()
+                    + "' requires a secret or a public-key");
+            }
+        }
+
+        signingKeyId = properties.getJwtKeyId();
+        if (properties.getJwtAlgorithm() == BizCoreProperties.JwtAlgorithm.HMAC) {
+            signingKey = hmacKey(properties.getJwtSecret());
+            keys.put(signingKeyId, new KeyEntry(signingKey, null));
+        } else {
+            KeyPair keyPair = loadOrGenerateKeyPair(properties.getJwtAlgorithm());
+            signingKey = keyPair.getPrivate();
+            keys.put(signingKeyId, new KeyEntry(keyPair.getPublic(), null));
+            publicJwks.add(0, toJwk(signingKeyId, keyPair.getPublic()));
+        }
+
+        verificationKeys = Map.copyOf(keys);
+        parser = Jwts.parser()
+            .keyLocator(new KeyIdLocator())
+            .build();
+        buildJwks(publicJwks);
+
+        logger.info("JWT keyring loaded: {} signing key '{}', {} verification key(s), {} published",
+            properties.getJwtAlgorithm(), signingKeyId, verificationKeys.size(), publicJwks.size());
+    }
+
+    public String getSigningKeyId() { return signingKeyId; }
+    public Key getSigningKey() { return signingKey; }
+
+    /**
+     * Thread-safe parser shared by every verification.
+     */
+    public JwtParser getParser() { return parser; }
+
+    /**
+     * @param keyId the "kid" header of a verified token, null for tokens signed before key ids were added
+     * @return the instant after which tokens signed with that key are rejected, or null if they never are
+     */
+    public Instant getAcceptUntil(String keyId) {
+        KeyEntry entry = verificationKeys.get(keyId != null ? keyId : signingKeyId);
+        return entry != null ? entry.acceptUntil() : null;
+    }
+
+    /**
+     * Serialized JWKS document ({"keys": [...]}) with the public keys downstream apps may trust.
+     * Empty when only HMAC keys are configured.
+     */
+    public byte[] getJwksJson() { return jwksJson; }
+
+    /**
+     * Strong ETag of {@link #getJwksJson()}; changes only when the published key set changes.
+     */
+    public String getJwksEtag() { return jwksEtag; }
+
+    private void buildJwks(List<Jwk<?>> publicJwks) {
+        try {
+            jwksJson = objectMapper.writeValueAsBytes(Map.of("keys", publicJwks));
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwksJson);
+            jwksEtag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to build JWKS document", e);
+        }
+    }
+
+    private KeyPair loadOrGenerateKeyPair(BizCoreProperties.JwtAlgorithm algorithm) {
+        if (StringUtils.hasText(properties.getJwtPrivateKey()) && StringUtils.hasText(properties.getJwtPublicKey())) {
+            return new KeyPair(parsePublicKey(properties.getJwtPublicKey()), parsePrivateKey(properties.getJwtPrivateKey()));
+        }
+
+        logger.warn("bizcore.jwt-private-key/jwt-public-key not set; generated an ephemeral {} key pair. "
+            + "Tokens will not survive a restart and other nodes cannot verify them.", algorithm);
+        try {
+            if (algorithm == BizCoreProperties.JwtAlgorithm.ES256) {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return generator.generateKeyPair();
+            }
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate " + algorithm + " key pair", e);
+        }
+    }
+
+    private static Jwk<?> toJwk(String keyId, PublicKey publicKey) {
+        return Jwks.builder().key(publicKey).id(keyId).build();
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PublicKey parsePublicKey(String pem) {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(decodePem(pem));
+        for (String algorithm : new String[]{"EC", "Ed25519"}) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (GeneralSecurityException ignored) {
+                // try the next key type
+            }
+        }
+        throw new IllegalStateException("Unsupported JWT public key; expected an EC P-256 or Ed25519 X.509 PEM");
+    }
+
+    private static PrivateKey parsePrivateKey(String pem) {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decodePem(pem));
+        for (String algorithm : new String[]{"EC", "Ed25519"}) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+            } catch (GeneralSecurityException ignored) {
+                // try the next key type
+            }
+        }
+        throw new IllegalStateException("Unsupported JWT private key; expected an EC P-256 or Ed25519 PKCS#8 PEM");
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END)[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private record KeyEntry(Key key, Instant acceptUntil) {
+    }
+
+    private class KeyIdLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            KeyEntry entry = verificationKeys.get(keyId != null ? keyId : signingKeyId);
+            if (entry == null) {
+                throw new JwtException("Unknown JWT key id: " + keyId);
+            }
+            if (entry.acceptUntil() != null && Instant.now().isAfter(entry.acceptUntil())) {
+                throw new JwtException("JWT key '" + keyId + "' has been retired");
+            }
+            return entry.key();
+        }
+    }
+}
@@ -1,33 +1,63 @@
 package com.bizcore.security;
 
+import com.bizcore.autoconfigure.BizCoreProperties;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${bizcore.jwt-secret:bizcore-jwt-secret-key-2024-very-long-and-secure}")
-    private String jwtSecret;
+    @Autowired
+    private JwtKeyring keyring;
 
-    @Value("${bizcore.jwt-expiration:86400000}")
-    private long jwtExpiration;
+    @Autowired
+    private VerifiedTokenCache tokenCache;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    @Autowired
+    private PermissionCatalog permissionCatalog;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Value("${bizcore.jwt-expiration:900000}")
+    private long jwtExpiration;
 
     public String generateToken(Long userId, Long companyId, String companyCode,
                                 String username, List<String> roles, List<String> permissions) {
+        return generateToken(userId, companyId, companyCode, username, roles, permissions,
+            permissionEpochs.current(companyId), permissionEpochs.currentForUser(userId));
+    }
+
+    /**
+     * @param permissionEpoch     the company's permission epoch as read together with the roles and
+     *                            permissions, so the token goes stale on the next company-wide change
+     * @param userPermissionEpoch the user's permission epoch read at the same time, so the token goes
+     *                            stale on the next change to the user's roles or their permissions
+     */
+    public String generateToken(Long userId, Long companyId, String companyCode, String username,
+                                List<String> roles, List<String> permissions, long permissionEpoch,
+                                long userPermissionEpoch) {
+        permissionEpochs.observe(companyId, permissionEpoch);
+        permissionEpochs.observeUser(userId, userPermissionEpoch);
+
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
@@ -37,33 +67,99 @@ public class JwtTokenProvider {
         claims.put("companyCode", companyCode);
         claims.put("username", username);
         claims.put("roles", roles);
-        claims.put("permissions", permissions);
+        putPermissions(claims, permissions);
+        claims.put("pep", permissionEpoch);
+        claims.put("uep", userPermissionEpoch);
 
         return Jwts.builder()
+            .header().keyId(keyring.getSigningKeyId()).and()
             .claims(claims)
+            .id(UUID.randomUUID().toString())
             .subject(userId.toString())
             .issuedAt(now)
             .expiration(expiryDate)
-            .signWith(getSigningKey())
+            .signWith(keyring.getSigningKey())
             .compact();
     }
 
+    /**
+     * @return access token lifetime in milliseconds
+     */
+    public long getExpiration() {
+        return jwtExpiration;
+    }
+
+    /**
+     * @return true if the token is valid and was issued after the latest permission change of its company
+     */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+        return verifyToken(token).filter(verified -> !permissionEpochs.isStale(verified)).isPresent();
+    }
+
+    /**
+     * Parses and verifies a token exactly once, or returns the cached result of an earlier verification.
+     * Revocation is checked on every call, cached or not, against the in-memory revocation list.
+     *
+     * @param token the compact JWS string
+     * @return the verified claims, or empty if the token is malformed, expired, badly signed or revoked
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        boolean cacheEnabled = tokenCache.isEnabled();
+        VerifiedToken verified = cacheEnabled ? tokenCache.get(token) : null;
+
+        if (verified == null) {
+            Jws<Claims> jws;
+            String catalogVersion;
+            try {
+                jws = keyring.getParser().parseSignedClaims(token);
+                // Read before decoding: if the catalog changes meanwhile, the entry is merely re-decoded once
+                catalogVersion = jws.getPayload().containsKey("pbm") ? permissionCatalog.getVersion() : null;
+                verified = toVerifiedToken(jws.getPayload());
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            if (cacheEnabled) {
+                tokenCache.put(token, verified, keyring.getAcceptUntil(jws.getHeader().getKeyId()), catalogVersion);
+            }
+        }
+
+        if (revocationList.isRevoked(verified.getTokenId())) {
+            return Optional.empty();
+        }
+        return Optional.of(verified);
+    }
+
+    /**
+     * Resolves the bearer token of the current request, verifying it at most once per request.
+     * The outcome (including a failed verification) is cached as a request attribute so every
+     * filter downstream reuses it.
+     *
+     * @param request the current HTTP request
+     * @return the verified token, or empty if the request has no valid bearer token
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<VerifiedToken> resolveToken(HttpServletRequest request) {
+        Object resolved = request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+        if (resolved instanceof Optional<?>) {
+            return (Optional<VerifiedToken>) resolved;
         }
+
+        String token = getBearerToken(request);
+        Optional<VerifiedToken> verified = StringUtils.hasText(token) ? verifyToken(token) : Optional.empty();
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified);
+        return verified;
+    }
+
+    public static String getBearerToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
     }
 
     public Claims getClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
+        return keyring.getParser()
             .parseSignedClaims(token)
             .getPayload();
     }
@@ -94,9 +190,72 @@ public class JwtTokenProvider {
         return claims.get("roles", List.class);
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getPermissions(String token) {
-        Claims claims = getClaims(token);
+        return getPermissions(getClaims(token));
+    }
+
+    /**
+     * Writes permissions either as a compact bitmap plus catalog version ("pbm"/"pcv")
+     * or, when configured or when a code is unknown to the catalog, as the full code list.
+     */
+    private void putPermissions(Map<String, Object> claims, List<String> permissions) {
+        if (usesBitmap() && permissions != null) {
+            String bitmap = permissionCatalog.encode(permissions);
+            if (bitmap != null) {
+                claims.put("pbm", bitmap);
+                claims.put("pcv", permissionCatalog.getVersion());
+                return;
+            }
+        }
+        claims.put("permissions", permissions);
+    }
+
+    /**
+     * Bitmaps need the permission catalog to decode, which only this service has; tokens signed for
+     * local verification by other applications carry the code list instead.
+     */
+    private boolean usesBitmap() {
+        return switch (properties.getJwtPermissionFormat()) {
+            case BITMAP -> true;
+            case LIST -> false;
+            case AUTO -> properties.getJwtAlgorithm() == BizCoreProperties.JwtAlgorithm.HMAC;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getPermissions(Claims claims) {
+        String bitmap = claims.get("pbm", String.class);
+        if (bitmap != null) {
+            return permissionCatalog.decode(bitmap, claims.get("pcv", String.class));
+        }
         return claims.get("permissions", List.class);
     }
+
+    /**
+     * Interns claim strings so tokens with the same roles and permissions share one copy of each code.
+     */
+    private static List<String> intern(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> interned = new ArrayList<>(values.size());
+        values.forEach(value -> interned.add(value.intern()));
+        return interned;
+    }
+
+    @SuppressWarnings("unchecked")
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+            claims.getId(),
+            claims.get("userId", Long.class),
+            claims.get("companyId", Long.class),
+            claims.get("companyCode", String.class),
+            claims.get("username", String.class),
+            intern(claims.get("roles", List.class)),
+            intern(getPermissions(claims)),
+            claims.get("pep", Long.class),
+            claims.get("uep", Long.class),
+            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
 }
@@ -0,0 +1,281 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token-bucket limits for login attempts, checked before any database or hashing work.
+ *
+ * Every attempt takes one token each from the buckets of its client IP, company and username
+ * before the credentials are checked, so parallel guesses against one user are limited as
+ * well as sequential ones. {@link #recordSuccess} gives the company and username tokens back,
+ * so successful logins never use up a tenant's or user's allowance. A bucket holds up to
+ * capacity tokens and refills at refill-per-minute; an empty bucket rejects the attempt with a
+ * {@link LoginThrottledException} (429 + Retry-After) and returns the tokens already taken
+ * for it from the company and username buckets.
+ *
+ * The client IP is the socket peer address. X-Forwarded-For is only followed through peers
+ * listed in trusted-proxies, so clients cannot pick their own IP bucket. Buckets live in
+ * ConcurrentHashMaps and are updated under their own monitor only. Each map holds at most
+ * max-buckets keys; further keys share one overflow bucket per map until the periodic sweep
+ * drops buckets that have refilled completely. Rejections are counted per limit as
+ * bizcore.login.throttled.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final String OVERFLOW_KEY = "";
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> companyBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> usernameBuckets = new ConcurrentHashMap<>();
+
+    private Counter ipRejections;
+    private Counter companyRejections;
+    private Counter usernameRejections;
+    private List<IpAddressMatcher> trustedProxies;
+
+    @PostConstruct
+    public void init() {
+        List<IpAddressMatcher> proxies = new ArrayList<>();
+        properties.getLoginThrottle().getTrustedProxies().forEach(proxy -> proxies.add(new IpAddressMatcher(proxy)));
+        trustedProxies = List.copyOf(proxies);
+
+        ipRejections = rejectionCounter("ip");
+        companyRejections = rejectionCounter("company");
+        usernameRejections = rejectionCounter("username");
+        Gauge.builder("bizcore.login.throttle.buckets", this, throttle ->
+                throttle.ipBuckets.size() + throttle.companyBuckets.size() + throttle.usernameBuckets.size())
+            .description("Login rate-limit buckets currently tracked")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token each from the client IP, company and username buckets.
+     *
+     * @throws LoginThrottledException if any of the buckets is empty
+     */
+    public void acquire(String clientIp, String companyCode, String username) {
+        BizCoreProperties.LoginThrottle settings = properties.getLoginThrottle();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        String company = normalize(companyCode);
+        take(ipBuckets, clientIp, settings.getIp(), now, ipRejections);
+        take(companyBuckets, company, settings.getCompany(), now, companyRejections);
+        try {
+            take(usernameBuckets, company + '/' + normalize(username), settings.getUsername(), now, usernameRejections);
+        } catch (LoginThrottledException e) {
+            refund(companyBuckets, company, settings.getCompany(), now);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the company and username tokens taken by {@link #acquire} for a login that succeeded.
+     */
+    public void recordSuccess(String companyCode, String username) {
+        BizCoreProperties.LoginThrottle settings = properties.getLoginThrottle();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        String company = normalize(companyCode);
+        refund(companyBuckets, company, settings.getCompany(), now);
+        refund(usernameBuckets, company + '/' + normalize(username), settings.getUsername(), now);
+    }
+
+    /**
+     * @return the socket peer address, or the nearest X-Forwarded-For entry that is not itself a
+     *         trusted proxy when the peer is one
+     */
+    public String resolveClientIp(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || !isTrustedProxy(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            address = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    /**
+     * Drops buckets that have refilled completely; recreating them later gives the same result.
+     */
+    @Scheduled(fixedDelayString = "${bizcore.login-throttle.eviction-interval:60000}")
+    public void evictIdle() {
+        BizCoreProperties.LoginThrottle settings = properties.getLoginThrottle();
+        long now = System.nanoTime();
+        int before = ipBuckets.size() + companyBuckets.size() + usernameBuckets.size();
+
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(settings.getIp(), now));
+        companyBuckets.values().removeIf(bucket -> bucket.isFull(settings.getCompany(), now));
+        usernameBuckets.values().removeIf(bucket -> bucket.isFull(settings.getUsername(), now));
+
+        int evicted = before - (ipBuckets.size() + companyBuckets.size() + usernameBuckets.size());
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle login throttle buckets", evicted);
+        }
+    }
+
+    private void take(Map<String, Bucket> buckets, String key, BizCoreProperties.RateLimit limit,
+                      long now, Counter rejections) {
+        if (key == null || limit.getCapacity() <= 0) {
+            return;
+        }
+        long waitNanos = bucket(buckets, key, limit, now).tryTake(limit, now);
+        if (waitNanos > 0) {
+            rejections.increment();
+            throw new LoginThrottledException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+
+    private void refund(Map<String, Bucket> buckets, String key, BizCoreProperties.RateLimit limit, long now) {
+        if (limit.getCapacity() <= 0) {
+            return;
+        }
+        Bucket bucket = buckets.get(key);
+        if (bucket == null && buckets.size() >= properties.getLoginThrottle().getMaxBuckets()) {
+            bucket = buckets.get(OVERFLOW_KEY);
+        }
+        // A missing bucket was evicted because it had refilled completely
+        if (bucket != null) {
+            bucket.refund(limit, now);
+        }
+    }
+
+    /**
+     * Looks up or creates the bucket of a key; once the map is full, new keys share the overflow bucket.
+     */
+    private Bucket bucket(Map<String, Bucket> buckets, String key, BizCoreProperties.RateLimit limit, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getLoginThrottle().getMaxBuckets()) {
+            key = OVERFLOW_KEY;
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(limit.getCapacity(), now));
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (trustedProxies.isEmpty() || !isIpLiteral(address)) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Header values are client-supplied; anything but an IP literal would trigger a DNS lookup in the matcher.
+     */
+    private static boolean isIpLiteral(String address) {
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return !address.isEmpty();
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private Counter rejectionCounter(String limit) {
+        return Counter.builder("bizcore.login.throttled")
+            .tag("limit", limit)
+            .description("Login attempts rejected by a rate limit")
+            .register(meterRegistry);
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one becomes available
+         */
+        synchronized long tryTake(BizCoreProperties.RateLimit limit, long now) {
+            refill(limit, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) ((1 - tokens) * nanosPerToken(limit));
+        }
+
+        synchronized void refund(BizCoreProperties.RateLimit limit, long now) {
+            refill(limit, now);
+            tokens = Math.min(limit.getCapacity(), tokens + 1);
+        }
+
+        synchronized boolean isFull(BizCoreProperties.RateLimit limit, long now) {
+            refill(limit, now);
+            return tokens >= limit.getCapacity();
+        }
+
+        private void refill(BizCoreProperties.RateLimit limit, long now) {
+            double added = (now - lastRefill) / nanosPerToken(limit);
+            tokens = Math.min(limit.getCapacity(), tokens + added);
+            lastRefill = now;
+        }
+
+        private static double nanosPerToken(BizCoreProperties.RateLimit limit) {
+            return TimeUnit.MINUTES.toNanos(1) / (double) Math.max(1, limit.getRefillPerMinute());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bizcore.security;
+
+/**
+ * Thrown when a login attempt exceeds one of the login rate limits. Mapped to 429 with a Retry-After header.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many sign-in attempts, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,181 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Builds the application's password encoder with a work factor measured on this machine.
+ *
+ * At startup the configured algorithm is timed at a cheap setting and its cost parameter is
+ * scaled to hit bizcore.password-hashing.target-millis per hash, within configured bounds.
+ * The result is a DelegatingPasswordEncoder that writes "{id}"-prefixed hashes, still verifies
+ * the unprefixed BCrypt hashes stored so far, and reports any hash made with another algorithm
+ * or a lower cost as needing an upgrade, so AuthService rehashes it on the next login.
+ * Spring's PBKDF2 format does not record its iteration count, so PBKDF2 hashes are written
+ * with an "i&lt;iterations&gt;$" tag by {@link IterationTaggedPbkdf2Encoder} to make that comparison possible.
+ */
+public final class PasswordEncoderCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderCalibrator.class);
+
+    private static final String ARGON2_ENGINE = "org.bouncycastle.crypto.generators.Argon2BytesGenerator";
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    public static PasswordEncoder create(BizCoreProperties.PasswordHashing settings) {
+        BizCoreProperties.PasswordAlgorithm algorithm = settings.getAlgorithm();
+        if (algorithm == BizCoreProperties.PasswordAlgorithm.ARGON2 && !ClassUtils.isPresent(ARGON2_ENGINE, null)) {
+            logger.warn("Argon2 password hashing requires BouncyCastle (org.bouncycastle:bcprov) on the classpath; "
+                + "falling back to BCRYPT");
+            algorithm = BizCoreProperties.PasswordAlgorithm.BCRYPT;
+        }
+
+        BCryptPasswordEncoder legacy = new BCryptPasswordEncoder();
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", legacy);
+        encoders.put("pbkdf2", new IterationTaggedPbkdf2Encoder(IterationTaggedPbkdf2Encoder.UNTAGGED_ITERATIONS));
+        if (ClassUtils.isPresent(ARGON2_ENGINE, null)) {
+            encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+
+        String idForEncode = switch (algorithm) {
+            case BCRYPT -> {
+                int strength = settings.getTargetMillis() > 0
+                    ? calibrate(BCryptPasswordEncoder::new, 8, settings.getBcryptMinStrength(), settings.getBcryptMaxStrength(),
+                        settings.getTargetMillis(), true)
+                    : settings.getBcryptMinStrength();
+                encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+                logger.info("Password hashing: BCrypt strength {}", strength);
+                yield "bcrypt";
+            }
+            case ARGON2 -> {
+                IntFunction<PasswordEncoder> argon2 = iterations ->
+                    new Argon2PasswordEncoder(16, 32, settings.getArgon2Parallelism(), settings.getArgon2Memory(), iterations);
+                int iterations = settings.getTargetMillis() > 0
+                    ? calibrate(argon2, 1, 1, 10, settings.getTargetMillis(), false)
+                    : 2;
+                encoders.put("argon2", argon2.apply(iterations));
+                logger.info("Password hashing: Argon2id memory {} KiB, parallelism {}, iterations {}",
+                    settings.getArgon2Memory(), settings.getArgon2Parallelism(), iterations);
+                yield "argon2";
+            }
+            case PBKDF2 -> {
+                IntFunction<PasswordEncoder> pbkdf2 = IterationTaggedPbkdf2Encoder::newEncoder;
+                int iterations = settings.getTargetMillis() > 0
+                    ? calibrate(pbkdf2, 10000, 310000, 5000000, settings.getTargetMillis(), false)
+                    : 310000;
+                encoders.put("pbkdf2", new IterationTaggedPbkdf2Encoder(iterations));
+                logger.info("Password hashing: PBKDF2-HMAC-SHA256 with {} iterations", iterations);
+                yield "pbkdf2";
+            }
+        };
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before encoder ids were introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(legacy);
+        return encoder;
+    }
+
+    /**
+     * Times one hash at the probe cost and scales it to the target.
+     *
+     * @param logarithmic true if each cost step doubles the work (BCrypt), false if work is linear in cost
+     */
+    private static int calibrate(IntFunction<PasswordEncoder> factory, int probeCost, int minCost, int maxCost,
+                                 long targetMillis, boolean logarithmic) {
+        PasswordEncoder probe = factory.apply(probeCost);
+        probe.encode(SAMPLE_PASSWORD); // warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            probe.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        double ratio = (targetMillis * 1_000_000.0) / Math.max(best, 1);
+        int cost = logarithmic
+            ? probeCost + (int) Math.floor(Math.log(ratio) / Math.log(2))
+            : (int) Math.round(probeCost * ratio);
+        int bounded = Math.max(minCost, Math.min(maxCost, cost));
+        logger.debug("Password hash calibration: {} ms at cost {}, target {} ms, chose cost {}",
+            best / 1_000_000.0, probeCost, targetMillis, bounded);
+        return bounded;
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 encoder that prefixes each hash with its iteration count, so
+     * {@link #upgradeEncoding} can tell hashes made before a recalibration. Untagged hashes were
+     * written with Spring's 5.8 defaults (310000 iterations).
+     */
+    static final class IterationTaggedPbkdf2Encoder implements PasswordEncoder {
+
+        static final int UNTAGGED_ITERATIONS = 310000;
+
+        private final int iterations;
+        private final PasswordEncoder current;
+        private final Map<Integer, PasswordEncoder> byIterations = new ConcurrentHashMap<>();
+
+        IterationTaggedPbkdf2Encoder(int iterations) {
+            this.iterations = iterations;
+            this.current = newEncoder(iterations);
+            byIterations.put(iterations, current);
+        }
+
+        static PasswordEncoder newEncoder(int iterations) {
+            return new Pbkdf2PasswordEncoder("", 16, iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "i" + iterations + "$" + current.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            int stored = iterationsOf(encodedPassword);
+            if (stored <= 0) {
+                return false;
+            }
+            return byIterations.computeIfAbsent(stored, IterationTaggedPbkdf2Encoder::newEncoder)
+                .matches(rawPassword, hashOf(encodedPassword));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return iterationsOf(encodedPassword) < iterations;
+        }
+
+        /**
+         * @return the tagged iteration count, the 5.8 default for untagged hashes, or 0 if the tag is malformed
+         */
+        private static int iterationsOf(String encodedPassword) {
+            if (encodedPassword == null || !encodedPassword.startsWith("i")) {
+                return UNTAGGED_ITERATIONS;
+            }
+            int end = encodedPassword.indexOf('$');
+            try {
+                return end > 1 ? Integer.parseInt(encodedPassword.substring(1, end)) : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        private static String hashOf(String encodedPassword) {
+            return encodedPassword.startsWith("i") ? encodedPassword.substring(encodedPassword.indexOf('$') + 1) : encodedPassword;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool that runs all password hashing off the request threads.
+ *
+ * Hashing is CPU-bound, so the pool has one thread per core (configurable) and a short
+ * queue. When the queue is full, or a hash cannot start within max-wait, the caller gets
+ * a {@link PasswordHashingRejectedException} (503 + Retry-After) and the queued hash is
+ * dropped. A request thread therefore blocks for at most max-wait plus one hash, so a login
+ * storm degrades logins rather than the whole API.
+ * Queue depth, active workers, hash latency and rejections are published as
+ * bizcore.password.hash.* metrics.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    /**
+     * Assumed time per hash for deriving max-wait when the cost is not calibrated
+     */
+    private static final long UNCALIBRATED_HASH_MILLIS = 250;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+    private long maxWait;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Timer queueWaitTimer;
+    private Counter rejections;
+
+    @PostConstruct
+    public void init() {
+        BizCoreProperties.PasswordHashing settings = properties.getPasswordHashing();
+        int threads = settings.getThreads() > 0 ? settings.getThreads() : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bizcore-hash-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        encodeTimer = Timer.builder("bizcore.password.hash")
+            .tag("operation", "encode")
+            .description("Time spent hashing a password")
+            .register(meterRegistry);
+        matchesTimer = Timer.builder("bizcore.password.hash")
+            .tag("operation", "matches")
+            .description("Time spent hashing a password")
+            .register(meterRegistry);
+        queueWaitTimer = Timer.builder("bizcore.password.hash.queue.wait")
+            .description("Time a hashing task waited for a worker")
+            .register(meterRegistry);
+        rejections = Counter.builder("bizcore.password.hash.rejected")
+            .description("Hashing requests rejected because the pool was saturated")
+            .register(meterRegistry);
+        Gauge.builder("bizcore.password.hash.queue", executor, pool -> pool.getQueue().size())
+            .description("Hashing tasks waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("bizcore.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hashing workers currently busy")
+            .register(meterRegistry);
+
+        long hashMillis = settings.getTargetMillis() > 0 ? settings.getTargetMillis() : UNCALIBRATED_HASH_MILLIS;
+        maxWait = settings.getMaxWait() > 0
+            ? settings.getMaxWait()
+            : Math.max(hashMillis, (long) Math.ceil((double) settings.getQueueCapacity() / threads) * hashMillis);
+
+        logger.info("Password hashing pool: {} threads, queue capacity {}, max wait {} ms",
+            threads, settings.getQueueCapacity(), maxWait);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String encode(Callable<String> task) {
+        return run(task, encodeTimer);
+    }
+
+    public boolean matches(Callable<Boolean> task) {
+        return run(task, matchesTimer);
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        BizCoreProperties.PasswordHashing settings = properties.getPasswordHashing();
+        long submitted = System.nanoTime();
+        // Claimed by the worker when the hash starts, or by the caller when it gives up waiting
+        AtomicBoolean claimed = new AtomicBoolean();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                long started = System.nanoTime();
+                queueWaitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingRejectedException(settings.getRetryAfter());
+        }
+
+        try {
+            try {
+                return future.get(maxWait, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    rejections.increment();
+                    throw new PasswordHashingRejectedException(settings.getRetryAfter());
+                }
+                // Already hashing; it finishes within one hash time
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
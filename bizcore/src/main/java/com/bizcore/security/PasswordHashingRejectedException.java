@@ -0,0 +1,18 @@
+package com.bizcore.security;
+
+/**
+ * Thrown when the password hashing pool is saturated. Mapped to 503 with a Retry-After header.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Too many concurrent sign-in requests, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
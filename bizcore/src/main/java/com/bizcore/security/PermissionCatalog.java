@@ -0,0 +1,157 @@
+package com.bizcore.security;
+
+import com.bizcore.entity.Permission;
+import com.bizcore.repository.PermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * In-memory catalog of permission codes used to encode and decode the compact permission bitmap claim.
+ *
+ * The ordinal of a permission is its database id, which never changes once assigned, so a bitmap
+ * stays valid across catalog reloads. The catalog version is a checksum over all (id, code) pairs;
+ * tokens carry the version they were issued against so a node with a stale catalog can tell it
+ * needs to reload.
+ */
+@Component
+public class PermissionCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionCatalog.class);
+
+    /**
+     * Minimum delay between reloads triggered by tokens issued against another catalog version
+     */
+    private static final long STALE_RELOAD_INTERVAL_MS = 30000;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastReload;
+
+    /**
+     * Reloads the catalog once the current transaction commits, so a rolled-back change never
+     * reaches the catalog. Reloads immediately when no transaction is active.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Reloads the catalog from the database.
+     */
+    public synchronized void refresh() {
+        List<Permission> permissions = new ArrayList<>(permissionRepository.findAll());
+        permissions.sort(Comparator.comparing(Permission::getId));
+
+        int maxId = permissions.isEmpty() ? 0 : permissions.get(permissions.size() - 1).getId().intValue();
+        String[] codesById = new String[maxId + 1];
+        Map<String, Integer> idsByCode = new HashMap<>();
+        CRC32 checksum = new CRC32();
+
+        for (Permission permission : permissions) {
+            int id = permission.getId().intValue();
+            String code = permission.getCode().intern();
+            codesById[id] = code;
+            idsByCode.put(code, id);
+            checksum.update((id + ":" + code + ";").getBytes(StandardCharsets.UTF_8));
+        }
+
+        snapshot = new Snapshot(Long.toHexString(checksum.getValue()), codesById, Map.copyOf(idsByCode));
+        lastReload = System.currentTimeMillis();
+        logger.debug("Permission catalog loaded: {} permissions, version {}", permissions.size(), snapshot.version());
+    }
+
+    public String getVersion() {
+        return current().version();
+    }
+
+    /**
+     * Encodes permission codes as a base64url bitmap indexed by permission id.
+     *
+     * @return the bitmap, or null if a code is not in the catalog (callers then fall back to the list format)
+     */
+    public String encode(List<String> codes) {
+        BitSet bits = toBitSet(codes, current());
+        if (bits == null && System.currentTimeMillis() - lastReload > STALE_RELOAD_INTERVAL_MS) {
+            // Possibly created on another node since our last load
+            refresh();
+            bits = toBitSet(codes, snapshot);
+        }
+        return bits != null ? Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()) : null;
+    }
+
+    /**
+     * Expands a bitmap produced by {@link #encode} back into permission codes.
+     * Ids unknown to this catalog (deleted permissions) are skipped.
+     */
+    public List<String> decode(String bitmap, String version) {
+        Snapshot current = current();
+        if (version != null && !version.equals(current.version())
+                && System.currentTimeMillis() - lastReload > STALE_RELOAD_INTERVAL_MS) {
+            refresh();
+            current = snapshot;
+        }
+
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(bitmap));
+        String[] codesById = current.codesById();
+        List<String> codes = new ArrayList<>(bits.cardinality());
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            if (id < codesById.length && codesById[id] != null) {
+                codes.add(codesById[id]);
+            }
+        }
+        return codes;
+    }
+
+    private static BitSet toBitSet(List<String> codes, Snapshot catalog) {
+        BitSet bits = new BitSet(catalog.codesById().length);
+        for (String code : codes) {
+            Integer id = catalog.idsByCode().get(code);
+            if (id == null) {
+                return null;
+            }
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private record Snapshot(String version, String[] codesById, Map<String, Integer> idsByCode) {
+    }
+}
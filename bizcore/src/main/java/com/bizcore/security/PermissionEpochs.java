@@ -0,0 +1,154 @@
+package com.bizcore.security;
+
+import com.bizcore.repository.CompanyRepository;
+import com.bizcore.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory tables of the permission epochs of companies and users.
+ *
+ * Tokens carry the epochs of their company ("pep" claim) and their user ("uep" claim) at issue
+ * time. A user's epoch is incremented when that user's roles or status change, or when the
+ * permissions of one of their roles change; the company's epoch only for changes that end access
+ * company-wide (deactivation, user deletion). Tokens issued before either moved are reported as
+ * stale with two map lookups, so the client refreshes and picks up the new permissions while
+ * unrelated users of the company keep their tokens. Changes made on this node apply on commit;
+ * changes made on other nodes are picked up by the periodic reload or by observing newer tokens.
+ * Epochs only ever move forward.
+ */
+@Component
+public class PermissionEpochs {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionEpochs.class);
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userEpochs = new ConcurrentHashMap<>();
+
+    /**
+     * @return the newest known epoch of the company, or 0 if none is known yet
+     */
+    public long current(Long companyId) {
+        return companyId != null ? epochs.getOrDefault(companyId, 0L) : 0L;
+    }
+
+    /**
+     * @return the newest known epoch of the user, or 0 if none is known yet
+     */
+    public long currentForUser(Long userId) {
+        return userId != null ? userEpochs.getOrDefault(userId, 0L) : 0L;
+    }
+
+    /**
+     * @return true if the token was issued before the latest access change of its company or user.
+     *         Tokens without an epoch claim are never stale on that claim.
+     */
+    public boolean isStale(VerifiedToken token) {
+        Long companyEpoch = token.getPermissionEpoch();
+        if (companyEpoch != null && companyEpoch < current(token.getCompanyId())) {
+            return true;
+        }
+        Long userEpoch = token.getUserPermissionEpoch();
+        return userEpoch != null && userEpoch < currentForUser(token.getUserId());
+    }
+
+    /**
+     * Records a company epoch read from the database, e.g. when a token is issued.
+     */
+    public void observe(Long companyId, long epoch) {
+        if (companyId != null) {
+            epochs.merge(companyId, epoch, Math::max);
+        }
+    }
+
+    /**
+     * Records a user epoch read from the database, e.g. when a token is issued.
+     */
+    public void observeUser(Long userId, long epoch) {
+        if (userId != null && epoch > 0) {
+            userEpochs.merge(userId, epoch, Math::max);
+        }
+    }
+
+    /**
+     * Increments the company's epoch in the current transaction, ending every token of the
+     * company; this node applies it on commit.
+     */
+    @Transactional
+    public void increment(Long companyId) {
+        if (companyId == null) {
+            return;
+        }
+        companyRepository.incrementPermissionEpoch(companyId);
+        long epoch = companyRepository.findPermissionEpoch(companyId).orElse(0L);
+        applyOnCommit(() -> observe(companyId, epoch));
+    }
+
+    /**
+     * Increments the user's epoch in the current transaction; this node applies it on commit.
+     */
+    @Transactional
+    public void incrementUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userRepository.incrementPermissionEpoch(userId);
+        long epoch = userRepository.findPermissionEpoch(userId).orElse(0L);
+        applyOnCommit(() -> observeUser(userId, epoch));
+    }
+
+    /**
+     * Increments the epochs of all members of the role in the current transaction; this node
+     * applies them on commit.
+     */
+    @Transactional
+    public void incrementRole(Long roleId) {
+        if (roleId == null) {
+            return;
+        }
+        userRepository.incrementPermissionEpochForRole(roleId);
+        List<Object[]> members = userRepository.findPermissionEpochsForRole(roleId);
+        applyOnCommit(() -> members.forEach(row -> observeUser((Long) row[0], ((Number) row[1]).longValue())));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bizcore.permission-epoch-refresh-interval:30000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        for (Object[] row : companyRepository.findAllPermissionEpochs()) {
+            observe((Long) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : userRepository.findAllPermissionEpochs()) {
+            observeUser((Long) row[0], ((Number) row[1]).longValue());
+        }
+        logger.debug("Permission epochs reloaded for {} companies and {} users", epochs.size(), userEpochs.size());
+    }
+
+    private static void applyOnCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bizcore.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires the caller to hold at least one of the given permission codes.
+ *
+ * Equivalent to {@code @PreAuthorize("hasAnyAuthority(...)")}, but the check is resolved once
+ * at startup and runs as a plain set lookup instead of a SpEL evaluation per call.
+ * On a class it applies to every method that is not annotated itself.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresPermission {
+
+    /**
+     * Permission codes, any one of which grants access
+     */
+    String[] value();
+}
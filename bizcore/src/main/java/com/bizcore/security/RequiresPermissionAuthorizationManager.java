@@ -0,0 +1,109 @@
+package com.bizcore.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Enforces {@link RequiresPermission} with checks compiled ahead of the first call.
+ *
+ * The pointcut is evaluated for every bean method while proxies are created at startup;
+ * each annotated method's required codes are resolved then and stored by (target class, method),
+ * since one inherited method can carry different class-level requirements per subclass. At call
+ * time the check is a map lookup followed by hash-set lookups in the caller's
+ * {@link AuthoritySet}, with no expression parsing or evaluation.
+ */
+public class RequiresPermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final String[] NONE = new String[0];
+
+    private final Map<MethodKey, String[]> requiredPermissions = new ConcurrentHashMap<>();
+
+    private final Pointcut pointcut = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return resolve(method, targetClass).length > 0;
+        }
+    };
+
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null
+            ? AopProxyUtils.ultimateTargetClass(target)
+            : invocation.getMethod().getDeclaringClass();
+        return isGranted(authentication.get(), resolve(invocation.getMethod(), targetClass)) ? GRANTED : DENIED;
+    }
+
+    private String[] resolve(Method method, Class<?> targetClass) {
+        MethodKey key = new MethodKey(targetClass, method);
+        String[] cached = requiredPermissions.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, RequiresPermission.class);
+        if (annotation == null) {
+            // Searches the target class and then its superclasses and interfaces
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequiresPermission.class);
+        }
+        if (annotation == null) {
+            return NONE;
+        }
+        String[] required = internAll(annotation.value());
+        requiredPermissions.put(key, required);
+        return required;
+    }
+
+    private static boolean isGranted(Authentication authentication, String[] required) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (authentication.getAuthorities() instanceof AuthoritySet authorities) {
+            for (String permission : required) {
+                if (authorities.hasAuthority(permission)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (String permission : required) {
+                if (permission.equals(authority.getAuthority())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private record MethodKey(Class<?> targetClass, Method method) {
+    }
+
+    private static String[] internAll(String[] values) {
+        String[] interned = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            interned[i] = values[i].intern();
+        }
+        return interned;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bizcore.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication built from a verified bearer token.
+ *
+ * Unlike UsernamePasswordAuthenticationToken it keeps the authority collection it is given
+ * instead of copying it, so the shared sets from {@link AuthorityCache} are used as-is.
+ */
+public class TokenAuthentication implements Authentication {
+
+    private static final long serialVersionUID = 1L;
+
+    private final UserPrincipal principal;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final Object details;
+    private boolean authenticated = true;
+
+    public TokenAuthentication(UserPrincipal principal, Collection<? extends GrantedAuthority> authorities, Object details) {
+        this.principal = principal;
+        this.authorities = authorities;
+        this.details = details;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public Object getCredentials() { return null; }
+
+    @Override
+    public Object getDetails() { return details; }
+
+    @Override
+    public UserPrincipal getPrincipal() { return principal; }
+
+    @Override
+    public boolean isAuthenticated() { return authenticated; }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("Cannot mark a token authentication as trusted; create a new instance instead");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String getName() { return principal.getUsername(); }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Principal=" + principal.getUsername()
+            + ", Granted Authorities=" + authorities + "]";
+    }
+}
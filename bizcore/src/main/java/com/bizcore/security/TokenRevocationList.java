@@ -0,0 +1,118 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.bizcore.entity.RevokedToken;
+import com.bizcore.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the revoked_tokens table, consulted on every token verification.
+ *
+ * Lookups never touch the database: a Bloom filter answers "not revoked" for almost every
+ * token and only its rare positives are confirmed against an exact jti set. The view is
+ * rebuilt from the table every bizcore.revocation.refresh-interval, so revocations made
+ * on other nodes take effect within that interval; revocations made on this node apply
+ * immediately.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        snapshot = emptySnapshot(0);
+    }
+
+    /**
+     * @return true if the token id has been revoked; null ids (tokens issued before jti existed) are never revoked
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return current.bloom().mightContain(jti) && current.revoked().containsKey(jti);
+    }
+
+    /**
+     * Persists a revocation and applies it to this node right away.
+     */
+    @Transactional
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            RevokedToken revoked = new RevokedToken();
+            revoked.setJti(jti);
+            revoked.setUserId(userId);
+            revoked.setExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+            revokedTokenRepository.save(revoked);
+        }
+        add(snapshot, jti, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Rebuilds the filter from the table and purges rows of tokens that have expired anyway.
+     * Entries added locally since the last load are carried over until they expire.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bizcore.revocation.refresh-interval:30000}")
+    @Transactional
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = System.currentTimeMillis();
+
+        revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> active = revokedTokenRepository.findActive(now);
+
+        Snapshot previous = snapshot;
+        Snapshot rebuilt = emptySnapshot(active.size() + previous.revoked().size());
+        for (RevokedToken token : active) {
+            add(rebuilt, token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        previous.revoked().forEach((jti, expiresAt) -> {
+            if (expiresAt > nowMillis) {
+                add(rebuilt, jti, expiresAt);
+            }
+        });
+
+        snapshot = rebuilt;
+        logger.debug("Token revocation list reloaded: {} revoked tokens", rebuilt.revoked().size());
+    }
+
+    private Snapshot emptySnapshot(int entries) {
+        BizCoreProperties.Revocation settings = properties.getRevocation();
+        int capacity = Math.max(settings.getExpectedRevocations(), entries * 2);
+        return new Snapshot(new BloomFilter(capacity, settings.getFalsePositiveRate()), new ConcurrentHashMap<>());
+    }
+
+    private static void add(Snapshot target, String jti, long expiresAtMillis) {
+        target.revoked().put(jti, expiresAtMillis);
+        target.bloom().put(jti);
+    }
+
+    private record Snapshot(BloomFilter bloom, Map<String, Long> revoked) {
+    }
+}
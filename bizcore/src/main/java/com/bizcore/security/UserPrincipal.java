@@ -1,6 +1,7 @@
 package com.bizcore.security;
 
 import java.util.List;
+import java.util.Set;
 
 public class UserPrincipal {
 
@@ -11,6 +12,10 @@ public class UserPrincipal {
     private List<String> roles;
     private List<String> permissions;
 
+    // Hash indexes over roles/permissions for constant-time checks
+    private Set<String> roleSet;
+    private Set<String> permissionSet;
+
     public UserPrincipal(Long userId, Long companyId, String companyCode,
                          String username, List<String> roles, List<String> permissions) {
         this.userId = userId;
@@ -19,6 +24,28 @@ public class UserPrincipal {
         this.username = username;
         this.roles = roles;
         this.permissions = permissions;
+        this.roleSet = roles != null ? Set.copyOf(roles) : Set.of();
+        this.permissionSet = permissions != null ? Set.copyOf(permissions) : Set.of();
+    }
+
+    /**
+     * Builds a principal that reuses the shared lookup sets of an {@link AuthoritySet}
+     * instead of indexing the claims again.
+     */
+    public UserPrincipal(VerifiedToken token, AuthoritySet authorities) {
+        this.userId = token.getUserId();
+        this.companyId = token.getCompanyId();
+        this.companyCode = token.getCompanyCode();
+        this.username = token.getUsername();
+        this.roles = token.getRoles();
+        this.permissions = token.getPermissions();
+        this.roleSet = authorities.getRoles();
+        this.permissionSet = authorities.getPermissions();
+    }
+
+    public UserPrincipal(VerifiedToken token) {
+        this(token.getUserId(), token.getCompanyId(), token.getCompanyCode(),
+             token.getUsername(), token.getRoles(), token.getPermissions());
     }
 
     public Long getUserId() { return userId; }
@@ -28,26 +55,25 @@ public class UserPrincipal {
     public List<String> getRoles() { return roles; }
     public List<String> getPermissions() { return permissions; }
 
+    // The lookup sets are immutable Set.copyOf results, which throw on contains(null)
     public boolean hasRole(String role) {
-        return roles != null && roles.contains(role);
+        return role != null && roleSet.contains(role);
     }
 
     public boolean hasPermission(String permission) {
-        return permissions != null && permissions.contains(permission);
+        return permission != null && permissionSet.contains(permission);
     }
 
     public boolean hasAnyRole(String... checkRoles) {
-        if (roles == null) return false;
         for (String role : checkRoles) {
-            if (roles.contains(role)) return true;
+            if (hasRole(role)) return true;
         }
         return false;
     }
 
     public boolean hasAnyPermission(String... checkPermissions) {
-        if (permissions == null) return false;
         for (String permission : checkPermissions) {
-            if (permissions.contains(permission)) return true;
+            if (hasPermission(permission)) return true;
         }
         return false;
     }
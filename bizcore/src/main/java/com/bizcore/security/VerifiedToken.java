@@ -0,0 +1,64 @@
+package com.bizcore.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable result of a successful JWT signature and expiry check.
+ * Built once per request by {@link JwtTokenProvider} and shared through
+ * the {@link #REQUEST_ATTRIBUTE} request attribute, so the authentication
+ * and request logging filters never parse the same token twice.
+ */
+public final class VerifiedToken {
+
+    /**
+     * Request attribute holding the {@code Optional<VerifiedToken>} resolved for the current request
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private final String tokenId;
+    private final Long userId;
+    private final Long companyId;
+    private final String companyCode;
+    private final String username;
+    private final List<String> roles;
+    private final List<String> permissions;
+    private final Long permissionEpoch;
+    private final Long userPermissionEpoch;
+    private final Instant expiresAt;
+
+    public VerifiedToken(String tokenId, Long userId, Long companyId, String companyCode, String username,
+                         List<String> roles, List<String> permissions, Long permissionEpoch, Long userPermissionEpoch,
+                         Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.companyId = companyId;
+        this.companyCode = companyCode;
+        this.username = username;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.permissions = permissions != null ? List.copyOf(permissions) : List.of();
+        this.permissionEpoch = permissionEpoch;
+        this.userPermissionEpoch = userPermissionEpoch;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * The jti claim, used for revocation (null for tokens issued before jti was added)
+     */
+    public String getTokenId() { return tokenId; }
+    public Long getUserId() { return userId; }
+    public Long getCompanyId() { return companyId; }
+    public String getCompanyCode() { return companyCode; }
+    public String getUsername() { return username; }
+    public List<String> getRoles() { return roles; }
+    public List<String> getPermissions() { return permissions; }
+    /**
+     * The company permission epoch the token was issued at ("pep" claim), null for older tokens
+     */
+    public Long getPermissionEpoch() { return permissionEpoch; }
+    /**
+     * The user permission epoch the token was issued at ("uep" claim), null for older tokens
+     */
+    public Long getUserPermissionEpoch() { return userPermissionEpoch; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,161 @@
+package com.bizcore.security;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache of verified tokens keyed by the SHA-256 digest of the compact token.
+ *
+ * A hit returns the previously verified claims without any signature check. Entries expire
+ * at the token's exp claim, at the acceptUntil of its signing key or after
+ * bizcore.token-cache.max-ttl, whichever comes first. Entries whose permissions were decoded
+ * from a bitmap also remember the catalog version used, and are dropped once the catalog changes.
+ * Only successfully verified tokens are cached, so garbage tokens cannot flood it.
+ * Hit/miss/eviction counters are published as bizcore.token.cache.* metrics.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PermissionCatalog permissionCatalog;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("bizcore.token.cache.requests", hits, LongAdder::doubleValue)
+            .tag("result", "hit")
+            .description("Verified-token cache lookups")
+            .register(meterRegistry);
+        FunctionCounter.builder("bizcore.token.cache.requests", misses, LongAdder::doubleValue)
+            .tag("result", "miss")
+            .description("Verified-token cache lookups")
+            .register(meterRegistry);
+        FunctionCounter.builder("bizcore.token.cache.evictions", evictions, LongAdder::doubleValue)
+            .description("Entries evicted to keep the verified-token cache within max-size")
+            .register(meterRegistry);
+        Gauge.builder("bizcore.token.cache.size", entries, Map::size)
+            .description("Verified tokens currently cached")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.getTokenCache().isEnabled();
+    }
+
+    /**
+     * @return the cached verification result, or null if the token is not cached, its entry expired,
+     *         or its permissions were decoded against an older permission catalog
+     */
+    public VerifiedToken get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()
+                || (entry.catalogVersion() != null && !entry.catalogVersion().equals(permissionCatalog.getVersion()))) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.token();
+    }
+
+    /**
+     * @param keyAcceptUntil when the token's signing key is retired, or null if it never is
+     * @param catalogVersion the permission catalog version the token's bitmap was decoded with,
+     *                       or null if its permissions came as a plain list
+     */
+    public void put(String token, VerifiedToken verified, Instant keyAcceptUntil, String catalogVersion) {
+        BizCoreProperties.TokenCache settings = properties.getTokenCache();
+        long now = System.currentTimeMillis();
+        long expiresAt = now + settings.getMaxTtl();
+        if (verified.getExpiresAt() != null) {
+            expiresAt = Math.min(expiresAt, verified.getExpiresAt().toEpochMilli());
+        }
+        if (keyAcceptUntil != null) {
+            expiresAt = Math.min(expiresAt, keyAcceptUntil.toEpochMilli());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+
+        if (entries.size() >= settings.getMaxSize()) {
+            evict(settings.getMaxSize(), now);
+        }
+        entries.put(digest(token), new Entry(verified, expiresAt, catalogVersion));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Drops expired entries first, then arbitrary ones until the cache is back to 90% of max-size.
+     * Only one thread evicts at a time; others keep inserting and may briefly overshoot.
+     */
+    private void evict(int maxSize, long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> {
+                if (entry.expiresAtMillis() <= now) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+
+            int target = maxSize - Math.max(1, maxSize / 10);
+            Iterator<String> keys = entries.keySet().iterator();
+            while (entries.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return new String(hash, StandardCharsets.ISO_8859_1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(VerifiedToken token, long expiresAtMillis, String catalogVersion) {
+    }
+}
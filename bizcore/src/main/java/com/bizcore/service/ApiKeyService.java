@@ -0,0 +1,152 @@
+package com.bizcore.service;
+
+import com.bizcore.dto.ApiKeyDTO;
+import com.bizcore.dto.CreateApiKeyRequest;
+import com.bizcore.entity.ApiKey;
+import com.bizcore.entity.Company;
+import com.bizcore.entity.Permission;
+import com.bizcore.entity.Role;
+import com.bizcore.repository.ApiKeyRepository;
+import com.bizcore.repository.CompanyRepository;
+import com.bizcore.repository.RoleRepository;
+import com.bizcore.security.ApiKeyAuthenticator;
+import com.bizcore.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class ApiKeyService {
+
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ApiKeyAuthenticator apiKeyAuthenticator;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Transactional(readOnly = true)
+    public List<ApiKeyDTO> getApiKeysByCompany(Long companyId) {
+        return apiKeyRepository.findByCompanyIdWithRoles(companyId).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a key in the caller's company, bound to the given roles of that company. Only users
+     * can create keys, and only with roles whose permissions they hold themselves.
+     *
+     * @return the key details, including the full key; it cannot be retrieved again
+     */
+    public ApiKeyDTO createApiKey(UserPrincipal caller, CreateApiKeyRequest request) {
+        if (caller.getUserId() == null) {
+            throw new RuntimeException("API keys cannot create API keys");
+        }
+        Company company = companyRepository.findById(caller.getCompanyId())
+            .orElseThrow(() -> new RuntimeException("Company not found"));
+
+        Set<Role> roles = new HashSet<>();
+        if (request.getRoleIds() != null && !request.getRoleIds().isEmpty()) {
+            Set<Long> roleIds = new HashSet<>(request.getRoleIds());
+            for (Role role : roleRepository.findAllById(roleIds)) {
+                if (!role.getCompany().getId().equals(company.getId())) {
+                    throw new RuntimeException("Role " + role.getId() + " does not belong to the company");
+                }
+                for (Permission permission : role.getPermissions()) {
+                    if (!caller.hasPermission(permission.getCode())) {
+                        throw new RuntimeException("Role " + role.getId() + " grants permissions the caller does not hold");
+                    }
+                }
+                roles.add(role);
+            }
+            if (roles.size() != roleIds.size()) {
+                throw new RuntimeException("Role not found");
+            }
+        }
+
+        String key = apiKeyAuthenticator.generateKey();
+
+        ApiKey apiKey = new ApiKey();
+        apiKey.setCompany(company);
+        apiKey.setName(request.getName());
+        apiKey.setKeyPrefix(key.substring(0, ApiKeyAuthenticator.KEY_PREFIX.length() + 6));
+        apiKey.setKeyDigest(apiKeyAuthenticator.digest(key));
+        apiKey.setRoles(roles);
+        apiKey.setExpiresAt(request.getExpiresAt());
+        apiKey.setActive(true);
+        ApiKey saved = apiKeyRepository.save(apiKey);
+
+        auditService.logSimple(
+            company.getId(),
+            caller.getUserId(),
+            caller.getUsername(),
+            "API_KEY_CREATED",
+            "Created API key: " + saved.getName()
+        );
+
+        ApiKeyDTO dto = convertToDTO(saved);
+        dto.setApiKey(key);
+        return dto;
+    }
+
+    /**
+     * Revokes a key of the caller's company; keys of other companies are reported as not found.
+     */
+    public boolean revokeApiKey(UserPrincipal caller, Long id) {
+        return apiKeyRepository.findByIdAndCompanyId(id, caller.getCompanyId())
+            .map(apiKey -> {
+                apiKey.setActive(false);
+                apiKey.setRevokedAt(LocalDateTime.now());
+                apiKeyRepository.save(apiKey);
+
+                String digest = apiKey.getKeyDigest();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        apiKeyAuthenticator.invalidate(digest);
+                    }
+                });
+
+                auditService.logSimple(
+                    apiKey.getCompany().getId(),
+                    caller.getUserId(),
+                    caller.getUsername(),
+                    "API_KEY_REVOKED",
+                    "Revoked API key: " + apiKey.getName()
+                );
+                return true;
+            })
+            .orElse(false);
+    }
+
+    private ApiKeyDTO convertToDTO(ApiKey apiKey) {
+        ApiKeyDTO dto = new ApiKeyDTO();
+        dto.setId(apiKey.getId());
+        dto.setCompanyId(apiKey.getCompany().getId());
+        dto.setName(apiKey.getName());
+        dto.setKeyPrefix(apiKey.getKeyPrefix());
+        dto.setRoles(apiKey.getRoles().stream().map(Role::getName).sorted().collect(Collectors.toList()));
+        dto.setActive(apiKey.isActive());
+        dto.setExpiresAt(apiKey.getExpiresAt());
+        dto.setCreatedAt(apiKey.getCreatedAt());
+        dto.setRevokedAt(apiKey.getRevokedAt());
+        return dto;
+    }
+}
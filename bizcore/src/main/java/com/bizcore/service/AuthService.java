@@ -1,13 +1,23 @@
 package com.bizcore.service;
 
+import com.bizcore.autoconfigure.BizCoreProperties;
 import com.bizcore.dto.*;
 import com.bizcore.entity.*;
 import com.bizcore.repository.*;
 import com.bizcore.security.JwtTokenProvider;
+import com.bizcore.security.PasswordHashingRejectedException;
+import com.bizcore.security.PermissionEpochs;
+import com.bizcore.security.TokenRevocationList;
+import com.bizcore.security.VerifiedToken;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -35,54 +45,107 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private TenantProvisioningService tenantProvisioningService;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void initTransactions() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs in three phases so no JDBC connection is held while the password is hashed:
+     * a short read of the credentials, the hash check on the hashing pool, then a short
+     * write transaction that records the login and builds the response.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
-        Optional<User> userOpt = userRepository.findByCompanyCodeAndUsername(
-            request.getCompanyCode(), request.getUsername());
+        Optional<TenantRegistry.Tenant> tenant = tenantRegistry.findByCode(request.getCompanyCode());
+        if (tenant.isEmpty()) {
+            return AuthResponse.error("Invalid company code, username, or password");
+        }
 
-        if (userOpt.isEmpty()) {
+        Optional<UserRepository.LoginCredentials> credentialsOpt = readTransaction.execute(status ->
+            userRepository.findLoginCredentials(tenant.get().id(), request.getUsername()));
+
+        if (credentialsOpt.isEmpty()) {
             return AuthResponse.error("Invalid company code, username, or password");
         }
 
-        User user = userOpt.get();
+        UserRepository.LoginCredentials credentials = credentialsOpt.get();
 
-        if (!user.isActive()) {
+        if (!credentials.getActive()) {
             return AuthResponse.error("User account is disabled");
         }
 
-        if (!user.getCompany().isActive()) {
+        if (!tenant.get().active()) {
             return AuthResponse.error("Company account is disabled");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), credentials.getPassword())) {
             return AuthResponse.error("Invalid company code, username, or password");
         }
 
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        String upgradedHash = upgradePasswordHash(credentials.getPassword(), request.getPassword());
 
-        List<String> roles = user.getRoles().stream()
-            .map(Role::getName)
-            .collect(Collectors.toList());
+        return writeTransaction.execute(status -> completeLogin(credentials, upgradedHash));
+    }
 
-        List<String> permissions = user.getRoles().stream()
-            .flatMap(role -> role.getPermissions().stream())
-            .map(Permission::getCode)
-            .distinct()
-            .collect(Collectors.toList());
+    private AuthResponse completeLogin(UserRepository.LoginCredentials credentials, String upgradedHash) {
+        Optional<User> userOpt = findUserForToken(credentials.getId());
+        if (userOpt.isEmpty()) {
+            return AuthResponse.error("Invalid company code, username, or password");
+        }
 
-        String token = tokenProvider.generateToken(
-            user.getId(),
-            user.getCompany().getId(),
-            user.getCompany().getCode(),
-            user.getUsername(),
-            roles,
-            permissions
-        );
+        User user = userOpt.get();
+
+        // The registry may lag a deactivation made on another node; the loaded row is authoritative
+        if (!user.getCompany().isActive()) {
+            return AuthResponse.error("Company account is disabled");
+        }
+
+        // Only replace the hash we verified; a concurrent password change wins
+        if (upgradedHash != null && credentials.getPassword().equals(user.getPassword())) {
+            user.setPassword(upgradedHash);
+            userRepository.save(user);
+        }
+
+        LocalDateTime loginTime = LocalDateTime.now();
+        lastLoginRecorder.record(user.getId(), loginTime);
+
+        String token = generateAccessToken(user);
 
         UserDTO userDTO = convertUserToDTO(user);
+        userDTO.setLastLogin(loginTime);
         CompanyDTO companyDTO = convertCompanyToDTO(user.getCompany());
         List<ApplicationDTO> apps = getApplicationsForUser(user);
 
@@ -94,14 +157,91 @@ public class AuthService {
             "User logged in successfully"
         );
 
-        return AuthResponse.success(token, userDTO, companyDTO, apps);
+        AuthResponse response = AuthResponse.success(token, userDTO, companyDTO, apps);
+        attachRefreshToken(response, refreshTokenService.issue(user.getId(), user.getCompany().getId()));
+        return response;
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token.
+     * Roles and permissions are re-read, so the new access token reflects current grants.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation;
+        try {
+            rotation = refreshTokenService.rotate(refreshToken);
+        } catch (RuntimeException e) {
+            return AuthResponse.error(e.getMessage());
+        }
+
+        Optional<User> userOpt = findUserForToken(rotation.consumed().getUserId());
+        if (userOpt.isEmpty() || !userOpt.get().isActive() || !userOpt.get().getCompany().isActive()) {
+            refreshTokenService.revoke(rotation.refreshToken());
+            return AuthResponse.error("User account is disabled");
+        }
+
+        User user = userOpt.get();
+        String token = generateAccessToken(user);
+
+        AuthResponse response = AuthResponse.success(token, convertUserToDTO(user),
+            convertCompanyToDTO(user.getCompany()), getApplicationsForUser(user));
+        response.setMessage("Token refreshed");
+        attachRefreshToken(response, rotation.refreshToken());
+        return response;
+    }
+
+    /**
+     * Revokes the access token (until its expiry) and the refresh token family it was issued with.
+     * Either token may be null.
+     */
+    public AuthResponse logout(String accessToken, String refreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            Optional<VerifiedToken> verified = tokenProvider.verifyToken(accessToken);
+            if (verified.isPresent()) {
+                VerifiedToken token = verified.get();
+                revocationList.revoke(token.getTokenId(), token.getUserId(), token.getExpiresAt());
+                auditService.logSimple(
+                    token.getCompanyId(),
+                    token.getUserId(),
+                    token.getUsername(),
+                    "LOGOUT",
+                    "User logged out"
+                );
+            }
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenService.revoke(refreshToken);
+        }
+
+        AuthResponse response = new AuthResponse();
+        response.setSuccess(true);
+        response.setMessage("Logged out");
+        return response;
+    }
+
+    /**
+     * Hashes the admin password before opening the write transaction, so no JDBC connection
+     * is held while hashing. With bizcore.provisioning.async, only reserves the company code
+     * and returns the provisioning id; the admin signs in once provisioning has completed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse registerCompany(RegisterCompanyRequest request) {
-        if (companyRepository.existsByCode(request.getCompanyCode())) {
+        if (tenantRegistry.isCodeTaken(request.getCompanyCode().toUpperCase())) {
             return AuthResponse.error("Company code already exists");
         }
 
+        String adminPasswordHash = passwordEncoder.encode(request.getAdminPassword());
+
+        if (properties.getProvisioning().isAsync()) {
+            TenantProvisioning job = writeTransaction.execute(status ->
+                tenantProvisioningService.reserve(request, adminPasswordHash));
+            return AuthResponse.provisioning(job.getId());
+        }
+
+        return writeTransaction.execute(status -> createCompany(request, adminPasswordHash));
+    }
+
+    private AuthResponse createCompany(RegisterCompanyRequest request, String adminPasswordHash) {
         Company company = new Company();
         company.setCode(request.getCompanyCode().toUpperCase());
         company.setName(request.getCompanyName());
@@ -110,6 +250,7 @@ public class AuthService {
         company.setActive(true);
         company.setSubscriptionPlan("FREE");
         Company savedCompany = companyRepository.save(company);
+        tenantRegistry.onCompanySaved(savedCompany);
 
         Role adminRole = createDefaultRoles(savedCompany);
 
@@ -117,7 +258,7 @@ public class AuthService {
         admin.setCompany(savedCompany);
         admin.setUsername(request.getAdminUsername());
         admin.setEmail(request.getAdminEmail());
-        admin.setPassword(passwordEncoder.encode(request.getAdminPassword()));
+        admin.setPassword(adminPasswordHash);
         admin.setFirstName(request.getAdminFirstName());
         admin.setLastName(request.getAdminLastName());
         admin.setActive(true);
@@ -139,7 +280,9 @@ public class AuthService {
             savedCompany.getCode(),
             savedAdmin.getUsername(),
             roles,
-            permissions
+            permissions,
+            savedCompany.getPermissionEpoch(),
+            savedAdmin.getPermissionEpoch()
         );
 
         UserDTO userDTO = convertUserToDTO(savedAdmin);
@@ -154,12 +297,15 @@ public class AuthService {
             "New company registered: " + savedCompany.getName()
         );
 
-        return AuthResponse.success(token, userDTO, companyDTO, apps);
+        AuthResponse response = AuthResponse.success(token, userDTO, companyDTO, apps);
+        attachRefreshToken(response, refreshTokenService.issue(savedAdmin.getId(), savedCompany.getId()));
+        return response;
     }
 
     private Role createDefaultRoles(Company company) {
         List<Role> systemRoles = roleRepository.findBySystemRoleTrue();
 
+        List<Role> companyRoles = new ArrayList<>(systemRoles.size() + 1);
         Role adminRole = null;
         for (Role systemRole : systemRoles) {
             Role companyRole = new Role();
@@ -168,9 +314,9 @@ public class AuthService {
             companyRole.setDescription(systemRole.getDescription());
             companyRole.setPermissions(new HashSet<>(systemRole.getPermissions()));
             companyRole.setActive(true);
-            Role savedRole = roleRepository.save(companyRole);
+            companyRoles.add(companyRole);
             if ("ADMIN".equals(systemRole.getName())) {
-                adminRole = savedRole;
+                adminRole = companyRole;
             }
         }
 
@@ -180,9 +326,11 @@ public class AuthService {
             adminRole.setName("ADMIN");
             adminRole.setDescription("Administrator with full access");
             adminRole.setActive(true);
-            adminRole = roleRepository.save(adminRole);
+            companyRoles.add(adminRole);
         }
 
+        // One batched INSERT for the roles and one for their permission links at flush
+        roleRepository.saveAll(companyRoles);
         return adminRole;
     }
 
@@ -190,6 +338,89 @@ public class AuthService {
         return tokenProvider.validateToken(token);
     }
 
+    /**
+     * Verifies a batch of tokens in process (verified-token cache, revocation list and permission
+     * epochs; no database access). Tokens repeated within the batch are verified once.
+     *
+     * @param companyId the caller's company; tokens of other companies are reported inactive
+     * @return one result per token, in request order
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TokenIntrospectionDTO> introspect(List<String> tokens, Long companyId) {
+        Map<String, TokenIntrospectionDTO> verified = new HashMap<>();
+        List<TokenIntrospectionDTO> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (!StringUtils.hasText(token)) {
+                results.add(TokenIntrospectionDTO.inactive());
+                continue;
+            }
+            results.add(verified.computeIfAbsent(token, t -> tokenProvider.verifyToken(t)
+                .filter(verifiedToken -> companyId.equals(verifiedToken.getCompanyId()))
+                .filter(verifiedToken -> !permissionEpochs.isStale(verifiedToken))
+                .map(this::convertTokenToIntrospection)
+                .orElseGet(TokenIntrospectionDTO::inactive)));
+        }
+        return results;
+    }
+
+    /**
+     * Rehashes the password if it was stored with another algorithm or a lower cost than the current encoder's.
+     * Skipped when the hashing pool is saturated; the next login tries again.
+     *
+     * @return the new hash, or null if no upgrade is needed or possible right now
+     */
+    private String upgradePasswordHash(String storedHash, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(storedHash)) {
+            return null;
+        }
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } catch (PasswordHashingRejectedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads everything token issuance and the login response need in two statements: the user
+     * with company, roles and permissions, then its applications. Must run in a transaction so
+     * the second query initializes the collection of the same managed instance.
+     */
+    private Optional<User> findUserForToken(Long userId) {
+        Optional<User> user = userRepository.findWithCompanyAndRolesById(userId);
+        if (user.isPresent()) {
+            userRepository.findWithApplicationsById(userId);
+        }
+        return user;
+    }
+
+    private String generateAccessToken(User user) {
+        List<String> roles = user.getRoles().stream()
+            .map(Role::getName)
+            .collect(Collectors.toList());
+
+        List<String> permissions = user.getRoles().stream()
+            .flatMap(role -> role.getPermissions().stream())
+            .map(Permission::getCode)
+            .distinct()
+            .collect(Collectors.toList());
+
+        return tokenProvider.generateToken(
+            user.getId(),
+            user.getCompany().getId(),
+            user.getCompany().getCode(),
+            user.getUsername(),
+            roles,
+            permissions,
+            user.getCompany().getPermissionEpoch(),
+            user.getPermissionEpoch()
+        );
+    }
+
+    private void attachRefreshToken(AuthResponse response, String refreshToken) {
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(tokenProvider.getExpiration() / 1000);
+    }
+
     private UserDTO convertUserToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
@@ -218,6 +449,19 @@ public class AuthService {
         return dto;
     }
 
+    private TokenIntrospectionDTO convertTokenToIntrospection(VerifiedToken token) {
+        TokenIntrospectionDTO dto = new TokenIntrospectionDTO();
+        dto.setActive(true);
+        dto.setUserId(token.getUserId());
+        dto.setCompanyId(token.getCompanyId());
+        dto.setCompanyCode(token.getCompanyCode());
+        dto.setUsername(token.getUsername());
+        dto.setRoles(token.getRoles());
+        dto.setPermissions(token.getPermissions());
+        dto.setExpiresAt(token.getExpiresAt());
+        return dto;
+    }
+
     private CompanyDTO convertCompanyToDTO(Company company) {
         CompanyDTO dto = new CompanyDTO();
         dto.setId(company.getId());
@@ -3,6 +3,7 @@ package com.bizcore.service;
 import com.bizcore.dto.CompanyDTO;
 import com.bizcore.entity.Company;
 import com.bizcore.repository.CompanyRepository;
+import com.bizcore.security.PermissionEpochs;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,12 @@ public class CompanyService {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
     public List<CompanyDTO> getAllCompanies() {
         return companyRepository.findByActiveTrue().stream()
             .map(this::convertToDTO)
@@ -36,7 +43,7 @@ public class CompanyService {
     }
 
     public CompanyDTO createCompany(CompanyDTO dto) {
-        if (companyRepository.existsByCode(dto.getCode())) {
+        if (tenantRegistry.isCodeTaken(dto.getCode())) {
             throw new RuntimeException("Company with code " + dto.getCode() + " already exists");
         }
 
@@ -46,6 +53,7 @@ public class CompanyService {
         company.setSubscriptionPlan("FREE");
 
         Company saved = companyRepository.save(company);
+        tenantRegistry.onCompanySaved(saved);
         return convertToDTO(saved);
     }
 
@@ -54,6 +62,7 @@ public class CompanyService {
             .map(company -> {
                 updateCompanyFromDTO(company, dto);
                 Company saved = companyRepository.save(company);
+                tenantRegistry.onCompanySaved(saved);
                 return convertToDTO(saved);
             })
             .orElse(null);
@@ -64,6 +73,8 @@ public class CompanyService {
             .map(company -> {
                 company.setActive(false);
                 companyRepository.save(company);
+                permissionEpochs.increment(company.getId());
+                tenantRegistry.onCompanySaved(company);
                 return true;
             })
             .orElse(false);
@@ -5,6 +5,7 @@ import com.bizcore.dto.PermissionDTO;
 import com.bizcore.dto.UpdatePermissionRequest;
 import com.bizcore.entity.Permission;
 import com.bizcore.repository.PermissionRepository;
+import com.bizcore.security.PermissionCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +26,9 @@ public class PermissionService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private PermissionCatalog permissionCatalog;
+
     public Page<PermissionDTO> getAllPermissions(Pageable pageable) {
         return permissionRepository.findAll(pageable).map(this::convertToDTO);
     }
@@ -61,6 +65,7 @@ public class PermissionService {
         permission.setModuleName(request.getModuleName());
 
         Permission savedPermission = permissionRepository.save(permission);
+        permissionCatalog.refreshAfterCommit();
 
         auditService.logSimple(
                 null,
@@ -82,6 +87,7 @@ public class PermissionService {
         if (request.getModuleName() != null) permission.setModuleName(request.getModuleName());
 
         Permission updatedPermission = permissionRepository.save(permission);
+        permissionCatalog.refreshAfterCommit();
 
         auditService.logSimple(
                 null,
@@ -111,6 +117,7 @@ public class PermissionService {
         );
 
         permissionRepository.delete(permission);
+        permissionCatalog.refreshAfterCommit();
     }
 
     private PermissionDTO convertToDTO(Permission permission) {
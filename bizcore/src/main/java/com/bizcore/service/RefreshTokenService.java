@@ -0,0 +1,134 @@
+package com.bizcore.service;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.bizcore.entity.RefreshToken;
+import com.bizcore.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * Only the SHA-256 hash of a token is stored. Every refresh consumes the presented token and
+ * issues a new one in the same family; presenting an already consumed token is treated as
+ * theft and revokes the whole family. Consumption is a conditional UPDATE, so of two
+ * concurrent refreshes with the same token only one succeeds and the other counts as reuse.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    /**
+     * Starts a new token family, e.g. on login.
+     *
+     * @return the raw refresh token to hand to the client
+     */
+    public String issue(Long userId, Long companyId) {
+        return issue(userId, companyId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consumes a refresh token and issues its successor.
+     *
+     * @return the consumed token (for its user and company) and the raw successor token
+     * @throws RuntimeException if the token is unknown, expired, or was already used
+     *         (the family revocation on reuse is committed regardless)
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        if (current.isRevoked()) {
+            throw reuseDetected(current);
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Refresh token has expired");
+        }
+        // Another rotation consumed it after we read it
+        if (refreshTokenRepository.consume(current.getId()) == 0) {
+            throw reuseDetected(current);
+        }
+
+        String successor = issue(current.getUserId(), current.getCompanyId(), current.getFamilyId());
+        return new Rotation(current, successor);
+    }
+
+    /**
+     * Revokes the family of the given token, e.g. on logout. Unknown tokens are ignored.
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.debug("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private RuntimeException reuseDetected(RefreshToken token) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+        logger.warn("Refresh token reuse detected for user {}; revoked {} token(s) of family {}",
+            token.getUserId(), revoked, token.getFamilyId());
+        return new RuntimeException("Refresh token has already been used");
+    }
+
+    private String issue(Long userId, Long companyId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUserId(userId);
+        token.setCompanyId(companyId);
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(properties.getRefreshTokenExpiration())));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Rotation(RefreshToken consumed, String refreshToken) {
+    }
+}
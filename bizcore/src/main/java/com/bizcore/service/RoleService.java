@@ -9,11 +9,15 @@ import com.bizcore.entity.Role;
 import com.bizcore.repository.CompanyRepository;
 import com.bizcore.repository.PermissionRepository;
 import com.bizcore.repository.RoleRepository;
+import com.bizcore.security.ApiKeyAuthenticator;
+import com.bizcore.security.PermissionEpochs;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashSet;
 import java.util.List;
@@ -34,6 +38,12 @@ public class RoleService {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
+    @Autowired
+    private ApiKeyAuthenticator apiKeyAuthenticator;
+
     @Autowired
     private AuditService auditService;
 
@@ -122,6 +132,8 @@ public class RoleService {
         }
 
         Role updatedRole = roleRepository.save(role);
+        permissionEpochs.incrementRole(role.getId());
+        invalidateApiKeysAfterCommit(role.getCompany().getId());
 
         auditService.logSimple(
                 role.getCompany().getId(),
@@ -155,6 +167,19 @@ public class RoleService {
         );
 
         roleRepository.delete(role);
+        invalidateApiKeysAfterCommit(role.getCompany().getId());
+    }
+
+    /**
+     * API keys hold roles too; their cached authorities are dropped once the role change commits.
+     */
+    private void invalidateApiKeysAfterCommit(Long companyId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apiKeyAuthenticator.invalidateCompany(companyId);
+            }
+        });
     }
 
     private RoleDTO convertToDTO(Role role) {
@@ -0,0 +1,263 @@
+package com.bizcore.service;
+
+import com.bizcore.autoconfigure.BizCoreProperties;
+import com.bizcore.dto.ProvisioningStatusDTO;
+import com.bizcore.dto.RegisterCompanyRequest;
+import com.bizcore.entity.Company;
+import com.bizcore.entity.TenantProvisioning;
+import com.bizcore.repository.CompanyRepository;
+import com.bizcore.repository.TenantProvisioningRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Asynchronous company registration (bizcore.provisioning.async).
+ *
+ * The request only inserts the company, inactive, which reserves its code, plus a
+ * tenant_provisioning job, and returns the job id. A scheduled worker claims jobs with
+ * SKIP LOCKED, so several nodes can share the queue, and provisions each company in one
+ * transaction of set-based statements. The work does not grow with the number of system
+ * roles and permissions: one INSERT ... SELECT clones the roles, one clones their permission
+ * links, and one assigns the applications. The job then completes and the company is
+ * activated. A job whose worker died is picked up again after stale-after.
+ *
+ * Each claim writes a fresh claim token. The provisioning transaction first locks the job row
+ * on (id, RUNNING, token), so a re-claim skips the job while it is being worked on. A worker
+ * whose claim has been taken over finds no row and backs off. Completion and failure are
+ * written under the same condition, so a superseded worker cannot overwrite the outcome.
+ *
+ * A failed job reports only the generic error code PROVISIONING_FAILED (details go to the
+ * server log), and its inactive company is deleted, so the code can be registered again.
+ */
+@Service
+public class TenantProvisioningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantProvisioningService.class);
+
+    static final String FAILED_ERROR_CODE = "PROVISIONING_FAILED";
+
+    private static final String CLAIM_NEXT_JOB =
+        "UPDATE tenant_provisioning SET status = 'RUNNING', started_at = NOW(), claim_token = ? " +
+        "WHERE id = (SELECT id FROM tenant_provisioning " +
+        "            WHERE status = 'PENDING' OR (status = 'RUNNING' AND started_at < ?) " +
+        "            ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+        "RETURNING id";
+
+    private static final String LOCK_CLAIMED_JOB =
+        "SELECT id FROM tenant_provisioning WHERE id = ? AND status = 'RUNNING' AND claim_token = ? FOR UPDATE";
+
+    private static final String COMPLETE_JOB =
+        "UPDATE tenant_provisioning SET status = 'COMPLETED', admin_password = NULL, completed_at = NOW() " +
+        "WHERE id = ? AND status = 'RUNNING' AND claim_token = ?";
+
+    private static final String FAIL_JOB =
+        "UPDATE tenant_provisioning SET status = 'FAILED', error = '" + FAILED_ERROR_CODE + "', " +
+        "admin_password = NULL, completed_at = NOW() " +
+        "WHERE id = ? AND status = 'RUNNING' AND claim_token = ? RETURNING company_id";
+
+    private static final String DELETE_RESERVED_COMPANY =
+        "DELETE FROM companies WHERE id = ? AND active = false";
+
+    private static final String CLONE_SYSTEM_ROLES =
+        "INSERT INTO roles (company_id, name, description, system_role, active, created_at, updated_at) " +
+        "SELECT ?, r.name, r.description, false, true, NOW(), NOW() FROM roles r WHERE r.system_role = true";
+
+    private static final String CLONE_ROLE_PERMISSIONS =
+        "INSERT INTO role_permissions (role_id, permission_id) " +
+        "SELECT cr.id, rp.permission_id FROM roles sr " +
+        "JOIN role_permissions rp ON rp.role_id = sr.id " +
+        "JOIN roles cr ON cr.company_id = ? AND cr.name = sr.name " +
+        "WHERE sr.system_role = true " +
+        "ON CONFLICT DO NOTHING";
+
+    private static final String ENSURE_ADMIN_ROLE =
+        "INSERT INTO roles (company_id, name, description, system_role, active, created_at, updated_at) " +
+        "SELECT ?, 'ADMIN', 'Administrator with full access', false, true, NOW(), NOW() " +
+        "WHERE NOT EXISTS (SELECT 1 FROM roles WHERE company_id = ? AND name = 'ADMIN')";
+
+    private static final String INSERT_ADMIN =
+        "INSERT INTO users (company_id, username, password, email, first_name, last_name, active, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, true, NOW(), NOW()) RETURNING id";
+
+    private static final String ASSIGN_ADMIN_ROLE =
+        "INSERT INTO user_roles (user_id, role_id) SELECT ?, id FROM roles WHERE company_id = ? AND name = 'ADMIN'";
+
+    private static final String ASSIGN_APPLICATIONS =
+        "INSERT INTO user_applications (user_id, application_id) SELECT ?, id FROM applications WHERE active = true";
+
+    @Autowired
+    private TenantProvisioningRepository provisioningRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BizCoreProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void initTransactions() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reserves the company code and queues the provisioning job. The admin password must already be hashed.
+     */
+    @Transactional
+    public TenantProvisioning reserve(RegisterCompanyRequest request, String adminPasswordHash) {
+        Company company = new Company();
+        company.setCode(request.getCompanyCode().toUpperCase());
+        company.setName(request.getCompanyName());
+        company.setEmail(request.getCompanyEmail());
+        company.setPhone(request.getCompanyPhone());
+        company.setActive(false);
+        company.setSubscriptionPlan("FREE");
+        Company savedCompany = companyRepository.save(company);
+        tenantRegistry.onCompanySaved(savedCompany);
+
+        TenantProvisioning job = new TenantProvisioning();
+        job.setId(UUID.randomUUID().toString());
+        job.setCompanyId(savedCompany.getId());
+        job.setAdminUsername(request.getAdminUsername());
+        job.setAdminEmail(request.getAdminEmail());
+        job.setAdminPassword(adminPasswordHash);
+        job.setAdminFirstName(request.getAdminFirstName());
+        job.setAdminLastName(request.getAdminLastName());
+        return provisioningRepository.save(job);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ProvisioningStatusDTO> getStatus(String id) {
+        return provisioningRepository.findById(id).map(this::convertToDTO);
+    }
+
+    @Scheduled(fixedDelayString = "${bizcore.provisioning.poll-interval:1000}")
+    public void processPending() {
+        BizCoreProperties.Provisioning settings = properties.getProvisioning();
+        if (!settings.isAsync()) {
+            return;
+        }
+
+        Timestamp staleBefore = Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(settings.getStaleAfter())));
+        for (int i = 0; i < settings.getBatchSize(); i++) {
+            String claim = UUID.randomUUID().toString();
+            List<String> claimed = transaction.execute(status ->
+                jdbcTemplate.queryForList(CLAIM_NEXT_JOB, String.class, claim, staleBefore));
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+
+            String jobId = claimed.get(0);
+            try {
+                transaction.executeWithoutResult(status -> provision(jobId, claim));
+            } catch (RuntimeException e) {
+                logger.error("Provisioning job {} failed", jobId, e);
+                Long companyId = transaction.execute(status -> markFailed(jobId, claim));
+                if (companyId != null) {
+                    releaseCompany(jobId, companyId);
+                }
+            }
+        }
+    }
+
+    private void provision(String jobId, String claim) {
+        // Held until commit: a stale re-claim skips this row, and a superseded claim finds nothing
+        if (jdbcTemplate.queryForList(LOCK_CLAIMED_JOB, String.class, jobId, claim).isEmpty()) {
+            logger.info("Provisioning job {} was claimed by another worker; skipping", jobId);
+            return;
+        }
+        TenantProvisioning job = provisioningRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Provisioning job not found: " + jobId));
+
+        Long companyId = job.getCompanyId();
+        int roles = jdbcTemplate.update(CLONE_SYSTEM_ROLES, companyId);
+        int links = jdbcTemplate.update(CLONE_ROLE_PERMISSIONS, companyId);
+        jdbcTemplate.update(ENSURE_ADMIN_ROLE, companyId, companyId);
+
+        Long adminId = jdbcTemplate.queryForObject(INSERT_ADMIN, Long.class, companyId, job.getAdminUsername(),
+            job.getAdminPassword(), job.getAdminEmail(), job.getAdminFirstName(), job.getAdminLastName());
+        jdbcTemplate.update(ASSIGN_ADMIN_ROLE, adminId, companyId);
+        jdbcTemplate.update(ASSIGN_APPLICATIONS, adminId);
+
+        Company company = companyRepository.findById(companyId)
+            .orElseThrow(() -> new RuntimeException("Company not found: " + companyId));
+        company.setActive(true);
+        tenantRegistry.onCompanySaved(companyRepository.save(company));
+
+        auditService.logSimple(
+            companyId,
+            adminId,
+            job.getAdminUsername(),
+            "COMPANY_REGISTERED",
+            "New company registered: " + company.getName()
+        );
+
+        jdbcTemplate.update(COMPLETE_JOB, jobId, claim);
+
+        logger.info("Provisioned company {} ({} roles, {} role permissions)", company.getCode(), roles, links);
+    }
+
+    /**
+     * @return the company reserved by the job, or null if this worker no longer holds the claim
+     */
+    private Long markFailed(String jobId, String claim) {
+        List<Long> companyIds = jdbcTemplate.queryForList(FAIL_JOB, Long.class, jobId, claim);
+        return companyIds.isEmpty() ? null : companyIds.get(0);
+    }
+
+    /**
+     * Deletes the still inactive company of a failed job so its code can be registered again.
+     * Runs in its own transaction: if the company cannot be deleted, the job stays FAILED.
+     */
+    private void releaseCompany(String jobId, Long companyId) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (jdbcTemplate.update(DELETE_RESERVED_COMPANY, companyId) > 0) {
+                    tenantRegistry.onCompanyDeleted(companyId);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not release company {} of failed provisioning job {}", companyId, jobId, e);
+        }
+    }
+
+    private ProvisioningStatusDTO convertToDTO(TenantProvisioning job) {
+        ProvisioningStatusDTO dto = new ProvisioningStatusDTO();
+        dto.setId(job.getId());
+        dto.setCompanyId(job.getCompanyId());
+        dto.setStatus(job.getStatus().name());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
+    }
+}
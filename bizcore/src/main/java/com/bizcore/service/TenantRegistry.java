@@ -0,0 +1,131 @@
+package com.bizcore.service;
+
+import com.bizcore.entity.Company;
+import com.bizcore.repository.CompanyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of all companies by code (id, active flag and plan), used to resolve the
+ * company of a login or registration without touching the companies table.
+ *
+ * The registry is loaded on first use, reloaded every bizcore.tenant-registry.refresh-interval
+ * and updated on commit of every company write on this node. It is authoritative for reads:
+ * a code it does not hold is unknown, without a database lookup, so garbage codes never reach
+ * the companies table. A company created on another node becomes visible here with the next
+ * reload. Only {@link #isCodeTaken}, used before creating a company, falls back to the database.
+ */
+@Component
+public class TenantRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private volatile Map<String, Tenant> tenants;
+
+    /**
+     * @return the company registered under exactly this code as of the last reload or local write
+     */
+    public Optional<Tenant> findByCode(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().get(code));
+    }
+
+    /**
+     * Uniqueness check before creating a company. Unlike {@link #findByCode} a miss is confirmed
+     * against the database, since another node may have taken the code since the last reload.
+     */
+    public boolean isCodeTaken(String code) {
+        return findByCode(code).isPresent() || companyRepository.existsByCode(code);
+    }
+
+    /**
+     * Applies a created or updated company to this node once the current transaction commits.
+     */
+    public void onCompanySaved(Company company) {
+        Tenant tenant = new Tenant(company.getId(), company.getCode(), company.isActive(), company.getSubscriptionPlan());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(tenant);
+                }
+            });
+        } else {
+            put(tenant);
+        }
+    }
+
+    /**
+     * Forgets a deleted company on this node once the current transaction commits.
+     */
+    public void onCompanyDeleted(Long companyId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(companyId);
+                }
+            });
+        } else {
+            remove(companyId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bizcore.tenant-registry.refresh-interval:30000}")
+    public synchronized void reload() {
+        Map<String, Tenant> loaded = new HashMap<>();
+        for (CompanyRepository.TenantSummary summary : companyRepository.findAllTenants()) {
+            Tenant tenant = toTenant(summary);
+            loaded.put(tenant.code(), tenant);
+        }
+        tenants = new ConcurrentHashMap<>(loaded);
+        logger.debug("Tenant registry loaded: {} companies", loaded.size());
+    }
+
+    private synchronized void put(Tenant tenant) {
+        Map<String, Tenant> current = current();
+        // The code of a company may change; drop the entry under its old code
+        current.values().removeIf(existing -> existing.id().equals(tenant.id()) && !existing.code().equals(tenant.code()));
+        current.put(tenant.code(), tenant);
+    }
+
+    private synchronized void remove(Long companyId) {
+        current().values().removeIf(existing -> existing.id().equals(companyId));
+    }
+
+    private Map<String, Tenant> current() {
+        Map<String, Tenant> current = tenants;
+        if (current == null) {
+            synchronized (this) {
+                if (tenants == null) {
+                    reload();
+                }
+                current = tenants;
+            }
+        }
+        return current;
+    }
+
+    private static Tenant toTenant(CompanyRepository.TenantSummary summary) {
+        return new Tenant(summary.getId(), summary.getCode(), Boolean.TRUE.equals(summary.getActive()),
+            summary.getSubscriptionPlan());
+    }
+
+    public record Tenant(Long id, String code, boolean active, String subscriptionPlan) {
+    }
+}
@@ -11,12 +11,17 @@ import com.bizcore.repository.ApplicationRepository;
 import com.bizcore.repository.CompanyRepository;
 import com.bizcore.repository.RoleRepository;
 import com.bizcore.repository.UserRepository;
+import com.bizcore.security.PermissionEpochs;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.List;
@@ -43,9 +48,22 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PermissionEpochs permissionEpochs;
+
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void initTransactions() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
     public Page<UserDTO> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable).map(this::convertToDTO);
     }
@@ -69,7 +87,16 @@ public class UserService {
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Hashes the password before opening the transaction, so no JDBC connection is held while hashing.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDTO createUser(CreateUserRequest request) {
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        return writeTransaction.execute(status -> createUser(request, passwordHash));
+    }
+
+    private UserDTO createUser(CreateUserRequest request, String passwordHash) {
         // Validate company exists
         Company company = companyRepository.findById(request.getCompanyId())
                 .orElseThrow(() -> new RuntimeException("Company not found"));
@@ -88,7 +115,7 @@ public class UserService {
         user.setCompany(company);
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHash);
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setPhoneNumber(request.getPhoneNumber());
@@ -160,6 +187,9 @@ public class UserService {
         if (request.getLastName() != null) user.setLastName(request.getLastName());
         if (request.getPhoneNumber() != null) user.setPhoneNumber(request.getPhoneNumber());
         if (request.getAvatar() != null) user.setAvatar(request.getAvatar());
+
+        // Deactivation and role changes must also end the user's outstanding access tokens
+        boolean revokeTokens = Boolean.FALSE.equals(request.getActive()) && user.isActive();
         if (request.getActive() != null) user.setActive(request.getActive());
 
         // Update roles - at least one role is required
@@ -181,6 +211,11 @@ public class UserService {
             }
 
             user.setRoles(roles);
+            revokeTokens = true;
+        }
+
+        if (revokeTokens) {
+            permissionEpochs.incrementUser(user.getId());
         }
 
         // Update applications
@@ -230,7 +265,9 @@ public class UserService {
                 null
         );
 
+        // The user's own epoch is deleted with the row, so end its tokens through the company epoch
         userRepository.delete(user);
+        permissionEpochs.increment(user.getCompany().getId());
     }
 
     public void deactivateUser(Long id) {
@@ -239,6 +276,7 @@ public class UserService {
 
         user.setActive(false);
         userRepository.save(user);
+        permissionEpochs.incrementUser(user.getId());
 
         // Audit log
         auditService.log(
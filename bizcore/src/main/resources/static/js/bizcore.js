@@ -6,6 +6,7 @@ const BizCore = {
     // Storage keys
     STORAGE_KEYS: {
         TOKEN: 'bizcore_token',
+        REFRESH_TOKEN: 'bizcore_refresh_token',
         USER: 'bizcore_user',
         COMPANY: 'bizcore_company',
         APPLICATIONS: 'bizcore_apps',
@@ -16,6 +17,7 @@ const BizCore = {
     // Set authentication data after login
     setAuth(data) {
         localStorage.setItem(this.STORAGE_KEYS.TOKEN, data.token);
+        if (data.refreshToken) localStorage.setItem(this.STORAGE_KEYS.REFRESH_TOKEN, data.refreshToken);
         localStorage.setItem(this.STORAGE_KEYS.USER, JSON.stringify(data.user));
         localStorage.setItem(this.STORAGE_KEYS.COMPANY, JSON.stringify(data.company));
         localStorage.setItem(this.STORAGE_KEYS.APPLICATIONS, JSON.stringify(data.applications || []));
@@ -105,8 +107,31 @@ const BizCore = {
         return roles.some(role => user.roles.includes(role));
     },
 
-    // API request helper
-    async api(url, options = {}) {
+    // Exchange the refresh token for a new access token; concurrent callers share one request
+    refreshAuth() {
+        if (!this._refreshing) {
+            const refreshToken = localStorage.getItem(this.STORAGE_KEYS.REFRESH_TOKEN);
+            this._refreshing = (refreshToken
+                ? fetch('/api/auth/refresh', {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ refreshToken })
+                }).then(response => response.ok ? response.json() : null).catch(() => null)
+                : Promise.resolve(null)
+            ).then(data => {
+                this._refreshing = null;
+                if (!data || !data.success) return false;
+                localStorage.setItem(this.STORAGE_KEYS.TOKEN, data.token);
+                localStorage.setItem(this.STORAGE_KEYS.REFRESH_TOKEN, data.refreshToken);
+                localStorage.setItem(this.STORAGE_KEYS.USER, JSON.stringify(data.user));
+                return true;
+            });
+        }
+        return this._refreshing;
+    },
+
+    // API request helper; on 401 refreshes the access token once and retries
+    async api(url, options = {}, retried = false) {
         const token = this.getToken();
         const headers = {
             'Content-Type': 'application/json',
@@ -123,6 +148,9 @@ const BizCore = {
         });
 
         if (response.status === 401) {
+            if (!retried && await this.refreshAuth()) {
+                return this.api(url, options, true);
+            }
             this.clearAuth();
             window.location.href = '/login.html';
             return;
@@ -157,8 +185,19 @@ const BizCore = {
         return this.api(url, { method: 'DELETE' });
     },
 
-    // Logout
+    // Logout; revokes the refresh token family on the server
     logout() {
+        const refreshToken = localStorage.getItem(this.STORAGE_KEYS.REFRESH_TOKEN);
+        const token = this.getToken();
+        fetch('/api/auth/logout', {
+            method: 'POST',
+            keepalive: true,
+            headers: {
+                'Content-Type': 'application/json',
+                ...(token ? { 'Authorization': `Bearer ${token}` } : {})
+            },
+            body: JSON.stringify({ refreshToken })
+        }).catch(() => {});
         this.clearAuth();
         window.location.href = '/login.html';
     },
@@ -0,0 +1,62 @@
+package com.bizcore.security;
+
+import com.bizcore.entity.RequestLog;
+import com.bizcore.filter.RequestLogWriter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The verified-token cache is off so every request has to verify its token; the parse count then
+ * shows how often the filter chain verifies it. The route override keeps the sampled role list logged.
+ */
+@SpringBootTest(properties = {
+    "bizcore.token-cache.enabled=false",
+    "bizcore.request-logging.routes[0].pattern=/api/roles/**"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @SpyBean
+    private JwtKeyring keyring;
+
+    @SpyBean
+    private RequestLogWriter requestLogWriter;
+
+    @Test
+    void authenticatedRequestParsesTheTokenOnce() throws Exception {
+        String token = tokenProvider.generateToken(42L, 7L, "PARSETEST", "alice",
+            List.of("VIEWER"), List.of("ROLE_VIEW"));
+
+        mockMvc.perform(get("/api/roles/system").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+
+        // JwtAuthenticationFilter verifies it, RequestLoggingFilter and UserPrincipal reuse the result
+        verify(keyring, times(1)).getParser();
+
+        ArgumentCaptor<RequestLog> logged = ArgumentCaptor.forClass(RequestLog.class);
+        verify(requestLogWriter).enqueue(logged.capture());
+        assertEquals("alice", logged.getValue().getUsername());
+        assertEquals(42L, logged.getValue().getUserId());
+    }
+}
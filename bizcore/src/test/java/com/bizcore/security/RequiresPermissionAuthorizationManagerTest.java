@@ -0,0 +1,45 @@
+package com.bizcore.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequiresPermissionAuthorizationManagerTest {
+
+    private final RequiresPermissionAuthorizationManager manager = new RequiresPermissionAuthorizationManager();
+
+    @Test
+    void inheritedMethodUsesTheRequirementOfEachSubclass() throws NoSuchMethodException {
+        Method list = BaseController.class.getMethod("list");
+        Authentication userViewer = authentication("USER_VIEW");
+
+        assertTrue(manager.check(() -> userViewer, new SimpleMethodInvocation(new UserListController(), list)).isGranted());
+        assertFalse(manager.check(() -> userViewer, new SimpleMethodInvocation(new RoleListController(), list)).isGranted());
+    }
+
+    private static Authentication authentication(String... permissions) {
+        AuthoritySet authorities = new AuthorityCache().getAuthorities(List.of("USER"), List.of(permissions));
+        UserPrincipal principal = new UserPrincipal(1L, 1L, "TEST", "alice", List.of("USER"), List.of(permissions));
+        return new TokenAuthentication(principal, authorities, null);
+    }
+
+    public static class BaseController {
+
+        public void list() {
+        }
+    }
+
+    @RequiresPermission("USER_VIEW")
+    public static class UserListController extends BaseController {
+    }
+
+    @RequiresPermission("ROLE_VIEW")
+    public static class RoleListController extends BaseController {
+    }
+}
@@ -0,0 +1,97 @@
+package com.bizcore.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-call cost of the {@link RequiresPermission} check against the {@code @PreAuthorize} SpEL
+ * check it replaced, for a caller with a typical admin-sized authority set.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main RequiresPermissionBenchmark}
+ * or through {@link #main(String[])} from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequiresPermissionBenchmark {
+
+    private RequiresPermissionAuthorizationManager requiresPermission;
+    private PreAuthorizeAuthorizationManager preAuthorize;
+    private MethodInvocation annotatedInvocation;
+    private MethodInvocation spelInvocation;
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        List<String> permissions = new ArrayList<>();
+        for (String entity : List.of("USER", "ROLE", "PERMISSION", "COMPANY", "AUDIT", "TRANSLATION")) {
+            permissions.add(entity + "_VIEW");
+            permissions.add(entity + "_MANAGE");
+        }
+        AuthoritySet authorities = new AuthorityCache().getAuthorities(List.of("ADMIN", "USER"), permissions);
+        UserPrincipal principal = new UserPrincipal(1L, 1L, "BENCH", "bench", List.of("ADMIN", "USER"), permissions);
+        Authentication token = new TokenAuthentication(principal, authorities, null);
+        authentication = () -> token;
+
+        Controller target = new Controller();
+        annotatedInvocation = new SimpleMethodInvocation(target, Controller.class.getMethod("annotated"));
+        spelInvocation = new SimpleMethodInvocation(target, Controller.class.getMethod("spel"));
+
+        requiresPermission = new RequiresPermissionAuthorizationManager();
+        requiresPermission.getPointcut().getMethodMatcher().matches(annotatedInvocation.getMethod(), Controller.class);
+
+        preAuthorize = new PreAuthorizeAuthorizationManager();
+        preAuthorize.setExpressionHandler(new DefaultMethodSecurityExpressionHandler());
+    }
+
+    @Benchmark
+    public AuthorizationDecision requiresPermission() {
+        return requiresPermission.check(authentication, annotatedInvocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision preAuthorize() {
+        return preAuthorize.check(authentication, spelInvocation);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RequiresPermissionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Controller {
+
+        @RequiresPermission("USER_VIEW")
+        public void annotated() {
+        }
+
+        @PreAuthorize("hasAuthority('USER_VIEW')")
+        public void spel() {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.bizcore.service;
+
+import com.bizcore.dto.AuthResponse;
+import com.bizcore.dto.LoginRequest;
+import com.bizcore.entity.Application;
+import com.bizcore.entity.Company;
+import com.bizcore.entity.Permission;
+import com.bizcore.entity.Role;
+import com.bizcore.entity.User;
+import com.bizcore.repository.ApplicationRepository;
+import com.bizcore.repository.CompanyRepository;
+import com.bizcore.repository.PermissionRepository;
+import com.bizcore.repository.RoleRepository;
+import com.bizcore.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceLoginTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createUser() {
+        if (companyRepository.existsByCode("LOGINTEST")) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Company company = new Company();
+            company.setCode("LOGINTEST");
+            company.setName("Login Test");
+            company.setEmail("login-test@example.com");
+            company.setActive(true);
+            company = companyRepository.save(company);
+
+            Permission view = permission("LOGINTEST_VIEW");
+            Permission edit = permission("LOGINTEST_EDIT");
+
+            Role viewer = role(company, "VIEWER", Set.of(view));
+            Role editor = role(company, "EDITOR", Set.of(view, edit));
+
+            Application first = application("LOGINTEST_APP1");
+            Application second = application("LOGINTEST_APP2");
+
+            User user = new User();
+            user.setCompany(company);
+            user.setUsername("alice");
+            user.setEmail("alice@example.com");
+            user.setPassword(passwordEncoder.encode("secret"));
+            user.setActive(true);
+            user.setRoles(Set.of(viewer, editor));
+            user.setApplications(Set.of(first, second));
+            userRepository.save(user);
+
+            tenantRegistry.onCompanySaved(company);
+        });
+    }
+
+    /**
+     * The first logins warm the permission catalog and the id sequence pools (a pooled optimizer
+     * reads its sequence twice before handing out the first block), so the third one shows the
+     * steady state: the credential projection, the two statements of the user graph
+     * (company, roles and permissions, then applications), and the audit and refresh token inserts.
+     * No entity or collection is loaded lazily on the way to the response.
+     */
+    @Test
+    void loginLoadsTheUserGraphInTwoStatements() {
+        for (int i = 0; i < 2; i++) {
+            assertTrue(authService.login(loginRequest()).isSuccess());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AuthResponse response = authService.login(loginRequest());
+
+        assertTrue(response.isSuccess(), response.getMessage());
+        assertEquals(Set.of("VIEWER", "EDITOR"), Set.copyOf(response.getUser().getRoles()));
+        assertEquals(Set.of("LOGINTEST_VIEW", "LOGINTEST_EDIT"), Set.copyOf(response.getUser().getPermissions()));
+        assertEquals(2, response.getApplications().size());
+
+        assertEquals(0, statistics.getEntityFetchCount(), "lazy entity loads");
+        assertEquals(0, statistics.getCollectionFetchCount(), "lazy collection loads");
+        assertEquals(3, statistics.getQueryExecutionCount(), "queries");
+        assertEquals(5, statistics.getPrepareStatementCount(), "JDBC statements");
+    }
+
+    private static LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setCompanyCode("LOGINTEST");
+        request.setUsername("alice");
+        request.setPassword("secret");
+        return request;
+    }
+
+    private Permission permission(String code) {
+        Permission permission = new Permission();
+        permission.setCode(code);
+        permission.setName(code);
+        return permissionRepository.save(permission);
+    }
+
+    private Role role(Company company, String name, Set<Permission> permissions) {
+        Role role = new Role();
+        role.setCompany(company);
+        role.setName(name);
+        role.setActive(true);
+        role.setPermissions(permissions);
+        return roleRepository.save(role);
+    }
+
+    private Application application(String code) {
+        Application application = new Application();
+        application.setCode(code);
+        application.setName(code);
+        application.setActive(true);
+        return applicationRepository.save(application);
+    }
+}
@@ -0,0 +1,190 @@
+package com.bizcore.service;
+
+import com.bizcore.BizCoreApplication;
+import com.bizcore.dto.AuthResponse;
+import com.bizcore.dto.RegisterCompanyRequest;
+import com.bizcore.entity.Application;
+import com.bizcore.entity.Permission;
+import com.bizcore.entity.RequestLog;
+import com.bizcore.entity.Role;
+import com.bizcore.repository.ApplicationRepository;
+import com.bizcore.repository.PermissionRepository;
+import com.bizcore.repository.RequestLogRepository;
+import com.bizcore.repository.RoleRepository;
+import org.hibernate.BaseSessionEventListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Company registration and bulk request-log ingestion with JDBC batching off (batch size 1, the
+ * behaviour under IDENTITY ids) and on (the configured 50).
+ *
+ * Runs against the in-memory H2 of the test profile, where a statement costs no network round
+ * trip, so the timings barely differ; the JDBC executions per operation printed at the end of each
+ * trial are the round trips a networked database would pay for. To measure against PostgreSQL, pass
+ * -Dspring.datasource.url/username/password and -Dspring.jpa.properties.hibernate.dialect through
+ * the fork's JVM arguments, with the schema from tables.sql.
+ *
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main EntityBatchingBenchmark}
+ * or through {@link #main(String[])} from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityBatchingBenchmark {
+
+    private static final int SYSTEM_ROLES = 5;
+    private static final int PERMISSIONS_PER_ROLE = 10;
+    private static final int LOGS_PER_INGEST = 100;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private RequestLogRepository requestLogRepository;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BizCoreApplication.class)
+            .profiles("test")
+            // Arguments rather than default properties, so they override application.yml
+            .run("--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.bizcore=WARN",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.jpa.properties.hibernate.session.events.auto=" + JdbcExecutions.class.getName(),
+                // Registration hashes the admin password; keep it cheap so inserts dominate
+                "--bizcore.password-hashing.target-millis=0",
+                "--bizcore.password-hashing.bcrypt-min-strength=4");
+        authService = context.getBean(AuthService.class);
+        requestLogRepository = context.getBean(RequestLogRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        transactionTemplate.executeWithoutResult(status -> seedSystemRoles());
+
+        JdbcExecutions.count.reset();
+        sequence.set(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Each benchmark method gets its own trial, so only one of them counted operations
+        if (sequence.get() > 0) {
+            System.out.printf("%nbatch size %d: %.1f JDBC executions per operation%n",
+                batchSize, JdbcExecutions.count.doubleValue() / sequence.get());
+        }
+        context.close();
+    }
+
+    /**
+     * Company, admin user and one company role per system role, each with its permission links
+     */
+    @Benchmark
+    public AuthResponse registerCompany() {
+        long n = sequence.incrementAndGet();
+        RegisterCompanyRequest request = new RegisterCompanyRequest();
+        request.setCompanyCode("BENCH" + n);
+        request.setCompanyName("Benchmark " + n);
+        request.setCompanyEmail("bench" + n + "@example.com");
+        request.setAdminUsername("admin");
+        request.setAdminEmail("admin" + n + "@example.com");
+        request.setAdminPassword("benchmark-password");
+        return authService.registerCompany(request);
+    }
+
+    @Benchmark
+    public List<RequestLog> ingestRequestLogs() {
+        sequence.incrementAndGet();
+        List<RequestLog> logs = new ArrayList<>(LOGS_PER_INGEST);
+        for (int i = 0; i < LOGS_PER_INGEST; i++) {
+            RequestLog log = new RequestLog();
+            log.setMethod("GET");
+            log.setEndpoint("/api/users/" + i);
+            log.setResponseStatus(200);
+            log.setDurationMs(3L);
+            log.setCreatedAt(LocalDateTime.now());
+            logs.add(log);
+        }
+        return transactionTemplate.execute(status -> requestLogRepository.saveAll(logs));
+    }
+
+    private void seedSystemRoles() {
+        PermissionRepository permissionRepository = context.getBean(PermissionRepository.class);
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        ApplicationRepository applicationRepository = context.getBean(ApplicationRepository.class);
+
+        for (int r = 0; r < SYSTEM_ROLES; r++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+                Permission permission = new Permission();
+                permission.setCode("BENCH_" + r + "_" + p);
+                permission.setName(permission.getCode());
+                permissions.add(permissionRepository.save(permission));
+            }
+            Role role = new Role();
+            role.setName(r == 0 ? "ADMIN" : "ROLE_" + r);
+            role.setSystemRole(true);
+            role.setActive(true);
+            role.setPermissions(permissions);
+            roleRepository.save(role);
+
+            Application application = new Application();
+            application.setCode("BENCH_APP_" + r);
+            application.setName(application.getCode());
+            application.setActive(true);
+            applicationRepository.save(application);
+        }
+    }
+
+    /**
+     * Counts statement executions and batch executions, each one round trip to the database
+     */
+    public static class JdbcExecutions extends BaseSessionEventListener {
+
+        static final LongAdder count = new LongAdder();
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            count.increment();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            count.increment();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EntityBatchingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
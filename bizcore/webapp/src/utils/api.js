@@ -11,6 +11,38 @@ class ApiClient {
 
   removeToken() {
     localStorage.removeItem('bizcore_token');
+    localStorage.removeItem('bizcore_refresh_token');
+  }
+
+  getRefreshToken() {
+    return localStorage.getItem('bizcore_refresh_token');
+  }
+
+  setRefreshToken(refreshToken) {
+    localStorage.setItem('bizcore_refresh_token', refreshToken);
+  }
+
+  // Exchanges the refresh token for a new access token; concurrent callers share one request
+  refresh() {
+    if (!this.refreshing) {
+      const refreshToken = this.getRefreshToken();
+      this.refreshing = (refreshToken
+        ? fetch(`${API_BASE}/auth/refresh`, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refreshToken }),
+          }).then((response) => (response.ok ? response.json() : null)).catch(() => null)
+        : Promise.resolve(null)
+      ).then((data) => {
+        this.refreshing = null;
+        if (!data || !data.success) return false;
+        this.setToken(data.token);
+        this.setRefreshToken(data.refreshToken);
+        this.setUser(data.user);
+        return true;
+      });
+    }
+    return this.refreshing;
   }
 
   getUser() {
@@ -26,7 +58,8 @@ class ApiClient {
     localStorage.removeItem('bizcore_user');
   }
 
-  async request(endpoint, options = {}) {
+  // On 401 refreshes the access token once and retries
+  async request(endpoint, options = {}, retried = false) {
     const token = this.getToken();
 
     const headers = {
@@ -44,6 +77,9 @@ class ApiClient {
     });
 
     if (response.status === 401) {
+      if (!retried && (await this.refresh())) {
+        return this.request(endpoint, options, true);
+      }
       this.removeToken();
       this.removeUser();
       window.location.href = '/login.html';
@@ -89,12 +125,23 @@ class ApiClient {
     const response = await this.post('/auth/login', { username, password });
     if (response.token) {
       this.setToken(response.token);
+      if (response.refreshToken) this.setRefreshToken(response.refreshToken);
       this.setUser(response.user);
     }
     return response;
   }
 
   logout() {
+    const token = this.getToken();
+    fetch(`${API_BASE}/auth/logout`, {
+      method: 'POST',
+      keepalive: true,
+      headers: {
+        'Content-Type': 'application/json',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      body: JSON.stringify({ refreshToken: this.getRefreshToken() }),
+    }).catch(() => {});
     this.removeToken();
     this.removeUser();
     window.location.href = '/login.html';
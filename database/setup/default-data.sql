@@ -83,6 +83,15 @@ INSERT INTO permissions (id, code, name, description, module_name)
 SELECT 10, 'AUDIT_VIEW', 'View Audit Logs', 'Can view system audit logs and request logs', 'Audit'
 WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE code = 'AUDIT_VIEW');
 
+-- API Keys
+INSERT INTO permissions (id, code, name, description, module_name)
+SELECT 11, 'API_KEY_MANAGE', 'Manage API Keys', 'Can create, list and revoke API keys for machine clients', 'Security'
+WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE code = 'API_KEY_MANAGE');
+
+INSERT INTO permissions (id, code, name, description, module_name)
+SELECT 12, 'TOKEN_INTROSPECT', 'Introspect Tokens', 'Can verify access tokens of the company via /api/auth/introspect', 'Security'
+WHERE NOT EXISTS (SELECT 1 FROM permissions WHERE code = 'TOKEN_INTROSPECT');
+
 SELECT setval('permissions_id_seq', GREATEST((SELECT MAX(id) FROM permissions), 1));
 
 
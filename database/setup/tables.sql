@@ -27,10 +27,14 @@ CREATE TABLE IF NOT EXISTS companies (
     subscription_plan VARCHAR(50) DEFAULT 'FREE',
     subscription_expires_at TIMESTAMP,
     settings JSONB DEFAULT '{}',
+    permission_epoch BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW()
 );
 
+-- Existing installations: bumped on company-wide access changes, embedded in tokens
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS permission_epoch BIGINT NOT NULL DEFAULT 0;
+
 CREATE INDEX IF NOT EXISTS idx_companies_code ON companies(code);
 CREATE INDEX IF NOT EXISTS idx_companies_active ON companies(active);
 
@@ -69,12 +73,16 @@ CREATE TABLE IF NOT EXISTS users (
     active BOOLEAN DEFAULT true,
     email_verified BOOLEAN DEFAULT false,
     last_login TIMESTAMP,
+    permission_epoch BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW(),
     CONSTRAINT unique_company_username UNIQUE(company_id, username),
     CONSTRAINT unique_company_email UNIQUE(company_id, email)
 );
 
+-- Existing installations: bumped when the user's roles, their permissions or the user's status change
+ALTER TABLE users ADD COLUMN IF NOT EXISTS permission_epoch BIGINT NOT NULL DEFAULT 0;
+
 CREATE INDEX IF NOT EXISTS idx_users_company ON users(company_id);
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
@@ -211,6 +219,91 @@ CREATE INDEX IF NOT EXISTS idx_request_logs_created ON request_logs(created_at D
 CREATE INDEX IF NOT EXISTS idx_request_logs_user_created ON request_logs(user_id, created_at DESC);
 
 
+-- Refresh Tokens (opaque, stored as SHA-256 hash; rotated on every use)
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) UNIQUE NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    company_id BIGINT NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens(family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens(expires_at);
+
+
+-- Revoked Access Tokens (by jti, kept until the token would have expired)
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(36) UNIQUE NOT NULL,
+    user_id BIGINT REFERENCES users(id) ON DELETE SET NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires ON revoked_tokens(expires_at);
+
+
+-- Company registrations waiting for the background provisioning worker
+CREATE TABLE IF NOT EXISTS tenant_provisioning (
+    id VARCHAR(36) PRIMARY KEY,
+    company_id BIGINT REFERENCES companies(id) ON DELETE SET NULL,
+    admin_username VARCHAR(100) NOT NULL,
+    admin_email VARCHAR(255) NOT NULL,
+    admin_password VARCHAR(255),
+    admin_first_name VARCHAR(100),
+    admin_last_name VARCHAR(100),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    claim_token VARCHAR(36),
+    error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_tenant_provisioning_status ON tenant_provisioning(status, created_at);
+
+
+-- API keys for machine clients (HMAC-SHA256 digest only; the key is shown once)
+CREATE TABLE IF NOT EXISTS api_keys (
+    id BIGSERIAL PRIMARY KEY,
+    company_id BIGINT NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    name VARCHAR(100) NOT NULL,
+    key_prefix VARCHAR(16) NOT NULL,
+    key_digest VARCHAR(64) UNIQUE NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT true,
+    expires_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    revoked_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_api_keys_company ON api_keys(company_id);
+
+CREATE TABLE IF NOT EXISTS api_key_roles (
+    api_key_id BIGINT NOT NULL REFERENCES api_keys(id) ON DELETE CASCADE,
+    role_id BIGINT NOT NULL REFERENCES roles(id) ON DELETE CASCADE,
+    PRIMARY KEY (api_key_id, role_id)
+);
+
+
+-- ID sequences hand out blocks of 50 so Hibernate can assign ids in memory
+-- and batch INSERTs (allocationSize = 50 in the entities). permissions_id_seq
+-- keeps INCREMENT 1: permission ids index the permission bitmap in tokens.
+ALTER SEQUENCE companies_id_seq INCREMENT BY 50;
+ALTER SEQUENCE applications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE translations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE request_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE refresh_tokens_id_seq INCREMENT BY 50;
+ALTER SEQUENCE revoked_tokens_id_seq INCREMENT BY 50;
+ALTER SEQUENCE api_keys_id_seq INCREMENT BY 50;
+
+
 -- ============================================
 -- Tables Created Successfully!
 -- ============================================